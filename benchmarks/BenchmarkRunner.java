@@ -0,0 +1,149 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Minimal harness in the spirit of JMH: fixed amount of timed warmup and measurement iterations per benchmark,
+ * average time per operation and allocated bytes per operation (the same numbers as gc.alloc.rate.norm
+ * of the JMH gc profiler, taken from the thread allocation counter of the JVM).
+ * <p>
+ * Usage: {@code java -cp <classes> BenchmarkRunner [-wi 3] [-i 5] [-t 200] [filter ...]},
+ * where -wi is amount of warmup iterations, -i amount of measured ones, -t duration of an iteration in ms,
+ * and filters are substrings of the benchmark names (all benchmarks are run without filters)
+ */
+public class BenchmarkRunner {
+    /** Measured operation, its result is consumed so the work cannot be eliminated */
+    @FunctionalInterface
+    public interface Operation {
+        Object run() throws Exception;
+    }
+
+    /** Named operation with parameters of the instance */
+    public static class Benchmark {
+        final String name;
+        final String parameters;
+        final Operation operation;
+
+        public Benchmark(String name, String parameters, Operation operation) {
+            this.name = name;
+            this.parameters = parameters;
+            this.operation = operation;
+        }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int warmupIterations;
+    private final int iterations;
+    private final long iterationNanos;
+    /** consumer of the results */
+    private int sink;
+
+    public BenchmarkRunner(int warmupIterations, int iterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+        this.iterationNanos = iterationMillis * 1_000_000;
+    }
+
+    /**
+     * Run the benchmark and print its line of the report
+     *
+     * @param benchmark benchmark to be measured
+     * @throws Exception if the operation fails
+     */
+    public void run(Benchmark benchmark) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(benchmark.operation);
+        }
+        double[] time = new double[iterations];
+        double[] allocated = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            double[] result = iteration(benchmark.operation);
+            time[i] = result[0];
+            allocated[i] = result[1];
+        }
+        double timeMean = mean(time);
+        double allocatedMean = mean(allocated);
+        System.out.printf(Locale.ROOT, "%-32s %-40s %14.3f +- %10.3f %14.1f %12.1f%n",
+                benchmark.name, benchmark.parameters,
+                timeMean / 1000, error(time, timeMean) / 1000,
+                allocatedMean, allocatedMean / timeMean * 1e9 / (1 << 20));
+    }
+
+    // Runs the operation until the iteration time is over, returns ns/op and B/op
+    private double[] iteration(Operation operation) throws Exception {
+        long operations = 0;
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink += System.identityHashCode(operation.run());
+            operations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new double[]{(double) elapsed / operations, (double) allocated / operations};
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    // Half width of the ~99.9% interval, the same spirit as the JMH error column
+    private static double error(double[] values, double mean) {
+        if (values.length < 2) {
+            return Double.NaN;
+        }
+        double sum = 0;
+        for (double value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+        return 3.29 * Math.sqrt(sum / (values.length - 1) / values.length);
+    }
+
+    private static boolean matches(Benchmark benchmark, List<String> filters) {
+        if (filters.isEmpty()) {
+            return true;
+        }
+        String fullName = benchmark.name + " " + benchmark.parameters;
+        for (String filter : filters) {
+            if (fullName.contains(filter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int warmup = 3;
+        int measured = 5;
+        long millis = 200;
+        List<String> filters = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi" -> warmup = Integer.parseInt(args[++i]);
+                case "-i" -> measured = Integer.parseInt(args[++i]);
+                case "-t" -> millis = Long.parseLong(args[++i]);
+                default -> filters.add(args[i]);
+            }
+        }
+        BenchmarkRunner runner = new BenchmarkRunner(warmup, measured, millis);
+        System.out.printf(Locale.ROOT, "%-32s %-40s %28s %14s %12s%n",
+                "Benchmark", "(parameters)", "Score, us/op", "Alloc, B/op", "Alloc, MB/s");
+        for (Benchmark benchmark : SolverBenchmarks.all()) {
+            if (matches(benchmark, filters)) {
+                runner.run(benchmark);
+            }
+        }
+        // keeps the results alive
+        if (runner.sink == 42) {
+            System.out.println();
+        }
+    }
+}
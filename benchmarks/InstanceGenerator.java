@@ -0,0 +1,211 @@
+import java.util.Random;
+
+/**
+ * Random problem instances for the benchmarks. Sparse instances keep only the given share of non zero items
+ * and are stored in {@link SparseMatrix}, dense ones in {@link Matrix}; both are generated from the same seed,
+ * so runs are reproducible
+ */
+public class InstanceGenerator {
+    /** share of non zero items in the sparse instances */
+    public static final double SPARSE_DENSITY = 0.1;
+
+    private final Random random;
+
+    public InstanceGenerator(long seed) {
+        random = new Random(seed);
+    }
+
+    /** Storage kind of the generated matrices */
+    public enum Kind {
+        DENSE(1), SPARSE(SPARSE_DENSITY);
+
+        final double density;
+
+        Kind(double density) {
+            this.density = density;
+        }
+    }
+
+    /**
+     * Random matrix with items in [-1, 1), dense storage for both kinds (sparse one has mostly zero items)
+     *
+     * @param rows    amount of rows
+     * @param columns amount of columns
+     * @param kind    share of non zero items
+     * @return dense matrix
+     */
+    public Matrix matrix(int rows, int columns, Kind kind) {
+        Matrix result = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (random.nextDouble() < kind.density) {
+                    result.set(i, j, random.nextDouble() * 2 - 1);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Random non singular (diagonally dominant) square matrix
+     *
+     * @param size dimension of the matrix
+     * @param kind share of non zero items off the diagonal
+     * @return dense matrix
+     */
+    public Matrix invertible(int size, Kind kind) {
+        Matrix result = matrix(size, size, kind);
+        for (int i = 0; i < size; i++) {
+            result.set(i, i, size + random.nextDouble());
+        }
+        return result;
+    }
+
+    /**
+     * Random column vector with items in [-1, 1)
+     *
+     * @param size size of the vector
+     * @return vector
+     */
+    public Vector vector(int size) {
+        Vector result = new ColumnVector(size);
+        for (int i = 0; i < size; i++) {
+            result.set(i, random.nextDouble() * 2 - 1);
+        }
+        return result;
+    }
+
+    /**
+     * Storage of the generated items, which corresponds to the kind
+     *
+     * @param matrix generated matrix
+     * @param kind   kind of the instance
+     * @return the same matrix for dense kind, sparse copy otherwise
+     */
+    public static MatrixOperator stored(Matrix matrix, Kind kind) {
+        return kind == Kind.SPARSE ? SparseMatrix.from(matrix) : matrix;
+    }
+
+    /**
+     * Bounded feasible linear program "max c*x, A*x <= b, x >= 0" with A >= 0, c > 0 and b = A*1 + 1,
+     * so x = (0.5, ..., 0.5) is strictly interior. Every column has a non zero item, so the program is bounded
+     *
+     * @param rows    amount of constraints
+     * @param columns amount of variables
+     * @param kind    share of non zero constraint items
+     * @return linear program
+     */
+    public LinearProgram linearProgram(int rows, int columns, Kind kind) {
+        Matrix constraints = new Matrix(rows, columns);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (random.nextDouble() < kind.density) {
+                    constraints.set(i, j, 1 + random.nextInt(9));
+                }
+            }
+        }
+        for (int j = 0; j < columns; j++) {
+            constraints.set(j % rows, j, 1 + random.nextInt(9));
+        }
+        Vector objective = new RowVector(columns);
+        for (int j = 0; j < columns; j++) {
+            objective.set(j, 1 + random.nextInt(9));
+        }
+        Vector rightHandSide = new RowVector(rows);
+        Vector interior = new RowVector(columns);
+        for (int i = 0; i < rows; i++) {
+            double sum = 1;
+            for (int j = 0; j < columns; j++) {
+                sum += constraints.get(i, j);
+            }
+            rightHandSide.set(i, sum);
+        }
+        for (int j = 0; j < columns; j++) {
+            interior.set(j, 0.5);
+        }
+        return new LinearProgram(objective, stored(constraints, kind), rightHandSide, interior);
+    }
+
+    /**
+     * Balanced transportation problem with integer supply, demand and costs (absent items of the sparse storage
+     * are forbidden routes, see {@link TransportationModel}, they are zero costs in the dense one)
+     *
+     * @param sources      amount of supply points
+     * @param destinations amount of demand points
+     * @param kind         share of non zero costs
+     * @return transportation problem
+     */
+    public Transportation transportation(int sources, int destinations, Kind kind) {
+        Matrix costs = new Matrix(sources, destinations);
+        for (int i = 0; i < sources; i++) {
+            for (int j = 0; j < destinations; j++) {
+                if (random.nextDouble() < kind.density) {
+                    costs.set(i, j, 1 + random.nextInt(20));
+                }
+            }
+        }
+        Vector supply = new RowVector(sources);
+        Vector demand = new RowVector(destinations);
+        double total = 0;
+        for (int i = 0; i < sources; i++) {
+            supply.set(i, 10 + random.nextInt(90));
+            total += supply.get(i);
+        }
+        // demand is split evenly with the rest assigned to the last point, so the problem is balanced
+        double share = Math.floor(total / destinations);
+        for (int j = 0; j < destinations; j++) {
+            demand.set(j, j + 1 < destinations ? share : total - share * (destinations - 1));
+        }
+        // routes of the north-west corner solution are always present, so sparse routes stay feasible
+        double[] left = new double[sources];
+        double[] needed = new double[destinations];
+        for (int i = 0; i < sources; i++) {
+            left[i] = supply.get(i);
+        }
+        for (int j = 0; j < destinations; j++) {
+            needed[j] = demand.get(j);
+        }
+        for (int i = 0, j = 0; i < sources && j < destinations; ) {
+            if (costs.get(i, j) == 0) {
+                costs.set(i, j, 1 + random.nextInt(20));
+            }
+            double provided = Math.min(left[i], needed[j]);
+            left[i] -= provided;
+            needed[j] -= provided;
+            if (left[i] == 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return new Transportation(stored(costs, kind), supply, demand);
+    }
+
+    /** Linear program with a known interior point */
+    public static class LinearProgram {
+        final Vector objective;
+        final MatrixOperator constraints;
+        final Vector rightHandSide;
+        final Vector interior;
+
+        LinearProgram(Vector objective, MatrixOperator constraints, Vector rightHandSide, Vector interior) {
+            this.objective = objective;
+            this.constraints = constraints;
+            this.rightHandSide = rightHandSide;
+            this.interior = interior;
+        }
+    }
+
+    /** Balanced transportation problem */
+    public static class Transportation {
+        final MatrixOperator costs;
+        final Vector supply;
+        final Vector demand;
+
+        Transportation(MatrixOperator costs, Vector supply, Vector demand) {
+            this.costs = costs;
+            this.supply = supply;
+            this.demand = demand;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks of the matrix kernels and of all the solvers over dense and sparse random instances.
+ * Instances are generated once per benchmark, solvers which mutate their input get fresh copies in each operation
+ */
+public class SolverBenchmarks {
+    private static final long SEED = 42;
+    private static final int[] KERNEL_SIZES = {64, 128, 256};
+    private static final int[] INVERSE_SIZES = {32, 64, 128};
+    private static final int[] PROGRAM_SIZES = {10, 50, 100};
+    private static final int[] TRANSPORTATION_SIZES = {10, 50, 100};
+
+    private SolverBenchmarks() {
+    }
+
+    /**
+     * All the benchmarks in the order of the report
+     *
+     * @return benchmarks
+     */
+    public static List<BenchmarkRunner.Benchmark> all() {
+        List<BenchmarkRunner.Benchmark> result = new ArrayList<>();
+        InstanceGenerator generator = new InstanceGenerator(SEED);
+        for (InstanceGenerator.Kind kind : InstanceGenerator.Kind.values()) {
+            for (int size : KERNEL_SIZES) {
+                Matrix left = generator.matrix(size, size, kind);
+                Matrix right = generator.matrix(size, size, kind);
+                result.add(new BenchmarkRunner.Benchmark("Matrix.multiply(Matrix)",
+                        parameters(kind, size + "x" + size), () -> left.multiply(right)));
+                MatrixOperator stored = InstanceGenerator.stored(left, kind);
+                Vector vector = generator.vector(size);
+                result.add(new BenchmarkRunner.Benchmark("MatrixOperator.multiply(Vector)",
+                        parameters(kind, size + "x" + size), () -> stored.multiply(vector)));
+            }
+        }
+        for (InstanceGenerator.Kind kind : InstanceGenerator.Kind.values()) {
+            for (int size : INVERSE_SIZES) {
+                Matrix matrix = generator.invertible(size, kind);
+                result.add(new BenchmarkRunner.Benchmark("Matrix.getInverse",
+                        parameters(kind, size + "x" + size), () -> matrix.getInverse(1e-12)));
+            }
+        }
+        List<Supplier<PricingRule>> pricingRules = List.of(
+                DantzigRule::new, DevexRule::new, SteepestEdgeRule::new, PartialPricingRule::new);
+        for (InstanceGenerator.Kind kind : InstanceGenerator.Kind.values()) {
+            for (int size : PROGRAM_SIZES) {
+                InstanceGenerator.LinearProgram program = generator.linearProgram(size, size, kind);
+                for (Supplier<PricingRule> pricingRule : pricingRules) {
+                    result.add(new BenchmarkRunner.Benchmark("SimplexMatrix.solve",
+                            parameters(kind, size + "x" + size) + " " + pricingRule.get().getClass().getSimpleName(),
+                            () -> {
+                        SimplexMatrix simplex = new SimplexMatrix(program.objective, program.constraints,
+                                program.rightHandSide, 1e-9, OptimizationMode.MAX);
+                        simplex.setPricingRule(pricingRule.get());
+                        simplex.solve();
+                        return simplex.getObjectiveFunctionValue();
+                    }));
+                }
+                result.add(new BenchmarkRunner.Benchmark("InteriorTopologicalPoint.solve",
+                        parameters(kind, size + "x" + size), () -> new InteriorTopologicalPoint(
+                        program.objective, program.constraints, program.rightHandSide, program.interior,
+                        0.5, 1e-3, OptimizationMode.MAX).solve()));
+            }
+        }
+        List<Supplier<Chooser>> choosers = List.of(
+                NorthWestChooser::new, VogelChooser::new, IncrementalVogelChooser::new,
+                RusselChooser::new, IncrementalRusselChooser::new);
+        for (InstanceGenerator.Kind kind : InstanceGenerator.Kind.values()) {
+            for (int size : TRANSPORTATION_SIZES) {
+                InstanceGenerator.Transportation problem = generator.transportation(size, size, kind);
+                result.add(new BenchmarkRunner.Benchmark("TransportationModel.solveOptimal",
+                        parameters(kind, size + "x" + size), () -> new TransportationModel(problem.costs,
+                        problem.demand, problem.supply, new NorthWestChooser()).solveOptimal()));
+                // choosers reject absent routes of the sparse costs, so they get the zero costs in dense storage
+                MatrixOperator costs = problem.costs instanceof SparseMatrix sparse ? sparse.toDense() : problem.costs;
+                for (Supplier<Chooser> chooser : choosers) {
+                    result.add(new BenchmarkRunner.Benchmark("TransportationModel.solve",
+                            parameters(kind, size + "x" + size) + " " + chooser.get().getClass().getSimpleName(),
+                            () -> new TransportationModel(costs, copy(problem.demand), copy(problem.supply),
+                                    chooser.get()).solve()));
+                    result.add(new BenchmarkRunner.Benchmark("TransportationModel.optimize",
+                            parameters(kind, size + "x" + size) + " " + chooser.get().getClass().getSimpleName(),
+                            () -> new TransportationModel(costs, copy(problem.demand), copy(problem.supply),
+                                    chooser.get()).optimize()));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String parameters(InstanceGenerator.Kind kind, String size) {
+        return kind.name().toLowerCase() + " " + size;
+    }
+
+    private static Vector copy(Vector vector) {
+        Vector result = new RowVector(vector.size());
+        for (int i = 0; i < vector.size(); i++) {
+            result.set(i, vector.get(i));
+        }
+        return result;
+    }
+}
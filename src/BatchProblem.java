@@ -0,0 +1,15 @@
+/**
+ * Independent problem, which can be solved by the {@link BatchSolver}
+ *
+ * @param <R> type of the solution
+ */
+public interface BatchProblem<R> {
+    /**
+     * Solve the problem on the current thread
+     *
+     * @param workspace scratch buffers of the worker, valid only during this call
+     * @return solution, which does not reference the workspace
+     * @throws Exception if the problem cannot be solved (same exceptions as the underlying solver)
+     */
+    R solve(SolverWorkspace workspace) throws Exception;
+}
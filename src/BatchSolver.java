@@ -0,0 +1,167 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Solves many independent problems on an executor.
+ * Each running problem borrows a {@link SolverWorkspace} from the pool and returns it when done,
+ * so the amount of scratch buffers equals to the amount of simultaneously running problems
+ * (it works the same way for platform and virtual threads, unlike thread locals)
+ */
+public class BatchSolver implements AutoCloseable {
+    private final ExecutorService executor;
+    /** whether executor was created by this solver and should be shut down on close */
+    private final boolean ownsExecutor;
+    /** idle workspaces */
+    private final ConcurrentLinkedQueue<SolverWorkspace> workspaces = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Solver over the given executor. Executor stays alive after {@link #close()}
+     *
+     * @param executor executor for the problems
+     */
+    public BatchSolver(ExecutorService executor) {
+        this(executor, false);
+    }
+
+    private BatchSolver(ExecutorService executor, boolean ownsExecutor) {
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Solver over the fixed pool of platform threads
+     *
+     * @param threads amount of threads, usually amount of available processors
+     * @return solver, which owns the pool
+     */
+    public static BatchSolver platformThreads(int threads) {
+        return new BatchSolver(Executors.newFixedThreadPool(threads), true);
+    }
+
+    /**
+     * Solver, which runs each problem on its own virtual thread
+     *
+     * @return solver, which owns the executor
+     */
+    public static BatchSolver virtualThreads() {
+        return new BatchSolver(Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    /**
+     * Schedule the problem
+     *
+     * @param problem problem to be solved
+     * @param <R>     type of the solution
+     * @return future of the solution, completed exceptionally with the exception of the solver
+     */
+    public <R> CompletableFuture<R> submit(BatchProblem<R> problem) {
+        return CompletableFuture.supplyAsync(() -> {
+            SolverWorkspace workspace = workspaces.poll();
+            if (workspace == null) {
+                workspace = new SolverWorkspace();
+            }
+            try {
+                return problem.solve(workspace);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                workspaces.offer(workspace);
+            }
+        }, executor);
+    }
+
+    /**
+     * Schedule all the problems
+     *
+     * @param problems problems to be solved
+     * @param <R>      type of the solutions
+     * @return futures in the order of the problems
+     */
+    public <R> List<CompletableFuture<R>> submitAll(Collection<? extends BatchProblem<R>> problems) {
+        List<CompletableFuture<R>> result = new ArrayList<>(problems.size());
+        for (BatchProblem<R> problem : problems) {
+            result.add(submit(problem));
+        }
+        return result;
+    }
+
+    /**
+     * Solve all the problems and wait for them
+     *
+     * @param problems problems to be solved
+     * @param <R>      type of the solutions
+     * @return results in the order of the problems
+     * @throws InterruptedException if waiting was interrupted
+     */
+    public <R> List<Result<R>> solveAll(Collection<? extends BatchProblem<R>> problems) throws InterruptedException {
+        List<CompletableFuture<R>> futures = submitAll(problems);
+        List<Result<R>> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) {
+            try {
+                results.add(new Result<>(future.get(), null));
+            } catch (ExecutionException e) {
+                results.add(new Result<>(null, e.getCause()));
+            }
+        }
+        return results;
+    }
+
+    /** Shuts down the executor if it was created by this solver, scheduled problems are still finished */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.close();
+        }
+    }
+
+    /**
+     * Outcome of a single problem: either solution or error
+     *
+     * @param <R> type of the solution
+     */
+    public static class Result<R> {
+        private final R solution;
+        private final Throwable error;
+
+        Result(R solution, Throwable error) {
+            this.solution = solution;
+            this.error = error;
+        }
+
+        /**
+         * Whether the problem was solved
+         *
+         * @return false if the solver failed
+         */
+        public boolean isSolved() {
+            return error == null;
+        }
+
+        /**
+         * Solution of the problem
+         *
+         * @return solution, null if the solver failed
+         */
+        public R getSolution() {
+            return solution;
+        }
+
+        /**
+         * Failure of the solver (e.g. ApplicationProblemException for unbounded problems)
+         *
+         * @return exception, null if the problem was solved
+         */
+        public Throwable getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the binary problem files, written by {@link BinaryProblemWriter} and read by {@link BinaryProblemReader}.
+ * All numbers are little-endian, doubles are stored bit-exact, so the round-trip does not lose precision.
+ * <pre>
+ * offset  size  header
+ *      0     4  magic "OPTB"
+ *      4     2  version of the format
+ *      6     1  kind of the problem ({@link Kind} ordinal)
+ *      7     1  optimization mode ({@link OptimizationMode} ordinal, MIN for transportation)
+ *      8     1  storage of the matrix: 0 - dense, 1 - sparse triplets
+ *      9     1  1 if constrain types are stored, 0 if all of them are "<="
+ *     10     6  reserved, zeros
+ *     16     8  accuracy
+ *     24     4  rows (constrains or supply points)
+ *     28     4  columns (variables or demand points)
+ *     32     8  amount of stored triplets of the sparse matrix, 0 for the dense one
+ * </pre>
+ * Linear program: objective function (columns doubles), right hand sides (rows doubles), constrain types
+ * (rows bytes of {@link ConstraintType} ordinals, padded by zeros to 8 bytes) if stored, then the constrains.
+ * Transportation problem: supply (rows doubles), demand (columns doubles), then the costs.
+ * Dense matrix is stored row by row (rows * columns doubles), sparse one as values (doubles),
+ * then rows (ints) and columns (ints) of the triplets in row-major order.
+ * Every block of doubles starts at a multiple of 8 bytes, so the dense matrix can be mapped by {@link OffHeapMatrix#map}
+ */
+public final class BinaryProblemFormat {
+    /** "OPTB" in the little-endian order */
+    static final int MAGIC = 'O' | 'P' << 8 | 'T' << 16 | 'B' << 24;
+    /** version written by this code, readers accept this and older versions */
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 40;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final byte DENSE = 0;
+    static final byte SPARSE = 1;
+
+    /** Kind of the stored problem */
+    public enum Kind {
+        LINEAR, TRANSPORTATION
+    }
+
+    private BinaryProblemFormat() {
+    }
+
+    /**
+     * Size of the block padded to 8 bytes
+     *
+     * @param bytes size of the block
+     * @return the smallest multiple of 8 not less than bytes
+     */
+    static long padded(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
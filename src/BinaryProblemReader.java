@@ -0,0 +1,274 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
+
+/**
+ * Reader of the problems in the binary format of {@link BinaryProblemFormat}.
+ * The header is read on opening, so the kind and dimensions are known before the items are loaded.
+ * Items are read by one sequential pass through a reusable direct buffer and copied in bulk straight into
+ * the storage of the resulting {@link Matrix}, {@link SparseMatrix} and vectors, no parsing is involved.
+ * Dense matrix may be mapped instead of loaded ({@link #setMapped(boolean)}), matrices beyond 2^31 items
+ * are always mapped into {@link OffHeapMatrix}
+ */
+public class BinaryProblemReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(BinaryProblemFormat.ORDER);
+
+    private final short version;
+    private final BinaryProblemFormat.Kind kind;
+    private final OptimizationMode mode;
+    private final boolean isSparse;
+    private final boolean hasTypes;
+    private final double accuracy;
+    private final int rows;
+    private final int columns;
+    private final long nonZeros;
+    private boolean isMapped;
+    private boolean isRead;
+
+    /**
+     * Open the file and read its header
+     *
+     * @param file path to the file
+     * @throws IOException if file cannot be read or it is not a problem of the supported version
+     */
+    public BinaryProblemReader(Path file) throws IOException {
+        this.file = file;
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer.limit(0);
+        try {
+            fill(BinaryProblemFormat.HEADER_SIZE);
+            if (buffer.getInt() != BinaryProblemFormat.MAGIC) {
+                throw new IOException(file + " is not a binary problem file");
+            }
+            version = buffer.getShort();
+            if (version < 1 || version > BinaryProblemFormat.VERSION) {
+                throw new IOException("Version " + version + " of the binary problem format is not supported");
+            }
+            kind = BinaryProblemFormat.Kind.values()[code(buffer.get(), BinaryProblemFormat.Kind.values().length)];
+            mode = OptimizationMode.values()[code(buffer.get(), OptimizationMode.values().length)];
+            isSparse = code(buffer.get(), 2) == BinaryProblemFormat.SPARSE;
+            hasTypes = code(buffer.get(), 2) == 1;
+            // reserved bytes
+            buffer.position(buffer.position() + 6);
+            accuracy = buffer.getDouble();
+            rows = buffer.getInt();
+            columns = buffer.getInt();
+            nonZeros = buffer.getLong();
+            if (rows < 0 || columns < 0 || nonZeros < 0 || nonZeros > Integer.MAX_VALUE) {
+                throw new IOException("Header has wrong dimensions (" + rows + " x " + columns + "), "
+                        + nonZeros + " items");
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Map the dense matrix into {@link OffHeapMatrix} instead of loading it, so it is read on demand
+     *
+     * @param isMapped true to map the dense matrix
+     */
+    public void setMapped(boolean isMapped) {
+        this.isMapped = isMapped;
+    }
+
+    /**
+     * Kind of the stored problem
+     *
+     * @return linear or transportation problem
+     */
+    public BinaryProblemFormat.Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Version of the format the file is written in
+     *
+     * @return version number
+     */
+    public short getVersion() {
+        return version;
+    }
+
+    /**
+     * Amount of rows of the matrix
+     *
+     * @return amount of constrains or supply points
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Amount of columns of the matrix
+     *
+     * @return amount of variables or demand points
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Whether the matrix is stored as sparse triplets
+     *
+     * @return true if the matrix is read into {@link SparseMatrix}
+     */
+    public boolean isSparse() {
+        return isSparse;
+    }
+
+    /**
+     * Read the linear program
+     *
+     * @return linear program with the stored mode and accuracy
+     * @throws IOException if file is not a linear program, it is already read or it is damaged
+     */
+    public LinearProblem readLinearProblem() throws IOException {
+        requireKind(BinaryProblemFormat.Kind.LINEAR);
+        Vector objectiveFunction = readVector(columns);
+        Vector rightHandSide = readVector(rows);
+        ConstraintType[] types = null;
+        if (hasTypes) {
+            types = readTypes();
+        }
+        return new LinearProblem(objectiveFunction, readMatrix(), types, rightHandSide, accuracy, mode);
+    }
+
+    /**
+     * Read the transportation problem
+     *
+     * @param method approximation method of the initial solution (not stored in the file)
+     * @return transportation problem
+     * @throws IOException if file is not a transportation problem, it is already read or it is damaged
+     */
+    public TransportationProblem readTransportationProblem(Supplier<? extends Chooser> method) throws IOException {
+        requireKind(BinaryProblemFormat.Kind.TRANSPORTATION);
+        Vector supply = readVector(rows);
+        Vector demand = readVector(columns);
+        return new TransportationProblem(readMatrix(), demand, supply, method);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void requireKind(BinaryProblemFormat.Kind expected) throws IOException {
+        if (kind != expected) {
+            throw new IOException(file + " holds " + kind + " problem, not " + expected);
+        }
+        if (isRead) {
+            throw new IOException("Problem is already read");
+        }
+        isRead = true;
+    }
+
+    private Vector readVector(int size) throws IOException {
+        double[] items = new double[size];
+        readDoubles(items, size);
+        return new RowVector(new Matrix(1, size, items), 0);
+    }
+
+    private MatrixOperator readMatrix() throws IOException {
+        if (isSparse) {
+            int count = (int) nonZeros;
+            double[] values = new double[count];
+            int[] rowIndex = new int[count];
+            int[] columnIndex = new int[count];
+            readDoubles(values, count);
+            readInts(rowIndex, count);
+            readInts(columnIndex, count);
+            try {
+                return new SparseMatrix(rows, columns, rowIndex, columnIndex, values);
+            } catch (IndexOutOfBoundsException e) {
+                throw new IOException("Damaged sparse matrix: " + e.getMessage());
+            }
+        }
+        long size = (long) rows * columns;
+        if (isMapped || size > Integer.MAX_VALUE) {
+            // the rest of the buffer is not consumed, so the matrix starts at the channel position minus it
+            long position = channel.position() - buffer.remaining();
+            buffer.position(buffer.limit());
+            channel.position(position + size * Double.BYTES);
+            return OffHeapMatrix.map(file, position, rows, columns);
+        }
+        double[] items = new double[(int) size];
+        readDoubles(items, items.length);
+        return new Matrix(rows, columns, items);
+    }
+
+    private ConstraintType[] readTypes() throws IOException {
+        ConstraintType[] types = new ConstraintType[rows];
+        ConstraintType[] codes = ConstraintType.values();
+        // the padding of the block is read with the types, the block may be larger than the buffer
+        long size = BinaryProblemFormat.padded(rows);
+        for (long read = 0; read < size; ) {
+            int count = (int) Math.min(size - read, BUFFER_SIZE);
+            fill(count);
+            for (int k = 0; k < count; k++) {
+                byte value = buffer.get();
+                if (read + k < rows) {
+                    types[(int) (read + k)] = codes[code(value, codes.length)];
+                }
+            }
+            read += count;
+        }
+        return types;
+    }
+
+    private void readDoubles(double[] target, int length) throws IOException {
+        int copied = 0;
+        while (copied < length) {
+            int count = Math.min(length - copied, BUFFER_SIZE / Double.BYTES);
+            fill(count * Double.BYTES);
+            buffer.asDoubleBuffer().get(target, copied, count);
+            buffer.position(buffer.position() + count * Double.BYTES);
+            copied += count;
+        }
+    }
+
+    private void readInts(int[] target, int length) throws IOException {
+        int copied = 0;
+        while (copied < length) {
+            int count = Math.min(length - copied, BUFFER_SIZE / Integer.BYTES);
+            fill(count * Integer.BYTES);
+            buffer.asIntBuffer().get(target, copied, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            copied += count;
+        }
+    }
+
+    // Makes at least the given amount of bytes available in the buffer, callers read larger blocks by chunks
+    private void fill(int bytes) throws IOException {
+        if (bytes > buffer.capacity()) {
+            throw new IllegalArgumentException(bytes + " bytes do not fit into the buffer of " + buffer.capacity());
+        }
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("File " + file + " is shorter than its header declares");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static int code(byte value, int amount) throws IOException {
+        if (value < 0 || value >= amount) {
+            throw new IOException("Unknown code " + value + " in the header");
+        }
+        return value;
+    }
+}
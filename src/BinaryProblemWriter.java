@@ -0,0 +1,176 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writer of the problems in the binary format of {@link BinaryProblemFormat}.
+ * Items are copied into a reusable direct buffer and written by large sequential blocks.
+ * {@link SparseMatrix} constrains are stored as triplets, all other storages as the dense matrix
+ */
+public class BinaryProblemWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(BinaryProblemFormat.ORDER);
+
+    /**
+     * Save the linear program (bounds and budgets of the solver are not a part of the problem and are not saved)
+     *
+     * @param file    path to the file, it is replaced if exists
+     * @param problem linear program
+     * @throws IOException if file cannot be written
+     */
+    public static void write(Path file, LinearProblem problem) throws IOException {
+        try (BinaryProblemWriter writer = new BinaryProblemWriter(file)) {
+            MatrixOperator constrains = problem.constrains;
+            writer.writeHeader(BinaryProblemFormat.Kind.LINEAR, problem.mode, constrains,
+                    problem.types != null, problem.accuracy);
+            writer.writeVector(problem.objectiveFunction);
+            writer.writeVector(problem.rightHandSide);
+            if (problem.types != null) {
+                byte[] codes = new byte[problem.types.length];
+                for (int i = 0; i < codes.length; i++) {
+                    codes[i] = (byte) problem.types[i].ordinal();
+                }
+                writer.writeBytes(codes);
+            }
+            writer.writeMatrix(constrains);
+        }
+    }
+
+    /**
+     * Save the transportation problem (the chooser is not a part of the problem and is not saved)
+     *
+     * @param file    path to the file, it is replaced if exists
+     * @param problem transportation problem
+     * @throws IOException if file cannot be written
+     */
+    public static void write(Path file, TransportationProblem problem) throws IOException {
+        try (BinaryProblemWriter writer = new BinaryProblemWriter(file)) {
+            writer.writeHeader(BinaryProblemFormat.Kind.TRANSPORTATION, OptimizationMode.MIN, problem.costs,
+                    false, TransportationModel.DEFAULT_ACCURACY);
+            writer.writeVector(problem.supply);
+            writer.writeVector(problem.demand);
+            writer.writeMatrix(problem.costs);
+        }
+    }
+
+    private BinaryProblemWriter(Path file) throws IOException {
+        channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void writeHeader(BinaryProblemFormat.Kind kind,
+                             OptimizationMode mode,
+                             MatrixOperator matrix,
+                             boolean hasTypes,
+                             double accuracy) throws IOException {
+        require(BinaryProblemFormat.HEADER_SIZE);
+        buffer.putInt(BinaryProblemFormat.MAGIC);
+        buffer.putShort(BinaryProblemFormat.VERSION);
+        buffer.put((byte) kind.ordinal());
+        buffer.put((byte) mode.ordinal());
+        buffer.put(matrix instanceof SparseMatrix ? BinaryProblemFormat.SPARSE : BinaryProblemFormat.DENSE);
+        buffer.put((byte) (hasTypes ? 1 : 0));
+        buffer.put(new byte[6]);
+        buffer.putDouble(accuracy);
+        buffer.putInt(matrix.getRows());
+        buffer.putInt(matrix.getColumns());
+        buffer.putLong(matrix instanceof SparseMatrix sparse ? sparse.nonZeros() : 0);
+    }
+
+    private void writeVector(Vector vector) throws IOException {
+        for (int i = 0; i < vector.size(); i++) {
+            require(Double.BYTES);
+            buffer.putDouble(vector.get(i));
+        }
+    }
+
+    private void writeMatrix(MatrixOperator matrix) throws IOException {
+        if (matrix instanceof SparseMatrix sparse) {
+            // CSR layout is already ordered by rows
+            writeDoubles(sparse.rowValues, sparse.nonZeros());
+            for (int i = 0; i < sparse.rows; i++) {
+                for (int k = sparse.rowPointers[i]; k < sparse.rowPointers[i + 1]; k++) {
+                    require(Integer.BYTES);
+                    buffer.putInt(i);
+                }
+            }
+            writeInts(sparse.columnIndices, sparse.nonZeros());
+            return;
+        }
+        double[] row = new double[matrix.getColumns()];
+        for (int i = 0; i < matrix.getRows(); i++) {
+            if (matrix instanceof OffHeapMatrix offHeap) {
+                offHeap.readRow(i, row);
+            } else {
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = matrix.get(i, j);
+                }
+            }
+            writeDoubles(row, row.length);
+        }
+    }
+
+    private void writeDoubles(double[] items, int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            require(Double.BYTES);
+            int count = Math.min(length - written, buffer.remaining() / Double.BYTES);
+            buffer.asDoubleBuffer().put(items, written, count);
+            buffer.position(buffer.position() + count * Double.BYTES);
+            written += count;
+        }
+    }
+
+    private void writeInts(int[] items, int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            require(Integer.BYTES);
+            int count = Math.min(length - written, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().put(items, written, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            written += count;
+        }
+    }
+
+    private void writeBytes(byte[] items) throws IOException {
+        for (byte item : items) {
+            require(1);
+            buffer.put(item);
+        }
+        pad(items.length);
+    }
+
+    // Zeros up to the multiple of 8 bytes after the block of the given size
+    private void pad(long size) throws IOException {
+        for (long k = size; k < BinaryProblemFormat.padded(size); k++) {
+            require(1);
+            buffer.put((byte) 0);
+        }
+    }
+
+    // Flushes the buffer, if it has less than the given amount of free bytes
+    private void require(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
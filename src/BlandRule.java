@@ -0,0 +1,29 @@
+/**
+ * Bland's rule: the first variable with negative reduced cost. Together with the smallest basic index
+ * on the ratio test ties it never cycles, so {@link SimplexMatrix} falls back to it on stalling
+ */
+public class BlandRule implements PricingRule {
+    private int iterations;
+
+    @Override
+    public int choose(SimplexMatrix simplex) {
+        Vector reducedCosts = simplex.objectiveFunction;
+        for (int j = 0; j < reducedCosts.size(); j++) {
+            if (simplex.cmp.compare(reducedCosts.get(j), 0d) < 0) {
+                iterations++;
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String toString() {
+        return "Bland's rule";
+    }
+}
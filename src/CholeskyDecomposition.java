@@ -0,0 +1,109 @@
+import Exceptions.ImproperConversionException;
+import Exceptions.SingularityException;
+
+/**
+ * Cholesky factorization M = L L^T of a symmetric positive definite matrix.
+ * Only the lower triangle of the input is used, L is stored in a flat row-major array
+ */
+public class CholeskyDecomposition {
+    /** dimension of the factorized matrix */
+    private final int size;
+    /** flat array with L on and below the diagonal */
+    private final double[] lower;
+
+    /**
+     * Factorize the symmetric positive definite matrix
+     *
+     * @param symmetric matrix to be factorized (stays unchanged)
+     * @param accuracy  pivots (diagonal items before the square root) not greater than accuracy are considered as zeros
+     * @throws ImproperConversionException if matrix is not square
+     * @throws SingularityException        if matrix is not positive definite
+     */
+    public CholeskyDecomposition(Matrix symmetric, double accuracy) throws ImproperConversionException, SingularityException {
+        this(flatten(symmetric), symmetric.getRows(), accuracy);
+    }
+
+    /**
+     * Factorize the symmetric positive definite matrix given by its flat row-major representation.
+     * !! Takes the ownership over the array, it will be overwritten by the factor !!
+     *
+     * @param data     row-major items of the matrix (size x size), only lower triangle is read
+     * @param size     dimension of the matrix
+     * @param accuracy pivots (diagonal items before the square root) not greater than accuracy are considered as zeros
+     * @throws SingularityException if matrix is not positive definite
+     */
+    CholeskyDecomposition(double[] data, int size, double accuracy) throws SingularityException {
+        this.size = size;
+        lower = data;
+        for (int j = 0; j < size; j++) {
+            int rowJ = j * size;
+            double diagonal = lower[rowJ + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= lower[rowJ + k] * lower[rowJ + k];
+            }
+            if (!(diagonal > accuracy)) {
+                throw new SingularityException("Error: matrix is not positive definite");
+            }
+            diagonal = Math.sqrt(diagonal);
+            lower[rowJ + j] = diagonal;
+            for (int i = j + 1; i < size; i++) {
+                int rowI = i * size;
+                double sum = lower[rowI + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= lower[rowI + k] * lower[rowJ + k];
+                }
+                lower[rowI + j] = sum / diagonal;
+            }
+            for (int k = j + 1; k < size; k++) {
+                lower[rowJ + k] = 0;
+            }
+        }
+    }
+
+    /**
+     * Dimension of the factorized matrix
+     *
+     * @return amount of rows (and columns) of the matrix
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Solve the system M x = b by forward (L) and backward (L^T) substitutions.
+     * !! Mutate the entry: b is replaced by x !!
+     *
+     * @param b right hand side of the system
+     */
+    public void solve(double[] b) {
+        for (int i = 0; i < size; i++) {
+            int row = i * size;
+            double sum = b[i];
+            for (int k = 0; k < i; k++) {
+                sum -= lower[row + k] * b[k];
+            }
+            b[i] = sum / lower[row + i];
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            double sum = b[i];
+            for (int k = i + 1; k < size; k++) {
+                sum -= lower[k * size + i] * b[k];
+            }
+            b[i] = sum / lower[i * size + i];
+        }
+    }
+
+    private static double[] flatten(Matrix symmetric) throws ImproperConversionException {
+        if (symmetric.getRows() != symmetric.getColumns()) {
+            throw new ImproperConversionException("Only square matrices can be Cholesky factorized");
+        }
+        int n = symmetric.getRows();
+        double[] data = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                data[i * n + j] = symmetric.get(i, j);
+            }
+        }
+        return data;
+    }
+}
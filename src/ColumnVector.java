@@ -1,7 +1,7 @@
 import java.util.ArrayList;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
-import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
 
 /** Represents a column vector, used for storing and manipulating column data */
 public class ColumnVector implements Vector {
@@ -9,6 +9,11 @@ public class ColumnVector implements Vector {
     private final Matrix matrix;
     /** index of the column within the matrix */
     private final int index;
+    /** dense view of the column in the storage of the matrix */
+    private final double[] items;
+    private final int offset;
+    private final int stride;
+    private final int size;
 
     /**
      * Scans input to create a vector from multiple rows of data.
@@ -39,8 +44,7 @@ public class ColumnVector implements Vector {
      * @param n size of the vector
      */
     ColumnVector(int n) {
-        matrix = new Matrix(n, 1);
-        index = 0;
+        this(new Matrix(n, 1), 0);
     }
 
     /**
@@ -52,16 +56,41 @@ public class ColumnVector implements Vector {
     ColumnVector(Matrix source, int column) {
         matrix = source;
         index = column;
+        items = source.lineRepresentation;
+        offset = column * source.columnStride();
+        stride = source.rowStride();
+        size = source.getRows();
     }
 
     @Override
     public double get(int index) throws IndexOutOfBoundsException {
-        return matrix.get(index, this.index);
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index is not reachable");
+        }
+        return items[offset + index * stride];
     }
 
     @Override
     public void set(int index, double value) throws IndexOutOfBoundsException {
-        matrix.set(index, this.index, value);
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index is not reachable");
+        }
+        items[offset + index * stride] = value;
+    }
+
+    @Override
+    public double[] array() {
+        return items;
+    }
+
+    @Override
+    public int offset() {
+        return offset;
+    }
+
+    @Override
+    public int stride() {
+        return stride;
     }
 
     @Override
@@ -75,7 +104,7 @@ public class ColumnVector implements Vector {
     }
 
     @Override
-    public Vector getMutated(Vector operand, BiFunction<Double, Double, Double> shader) {
+    public Vector getMutated(Vector operand, DoubleBinaryOperator shader) {
         Vector res = clone();
         res.mutateBy(operand, shader);
         return res;
@@ -83,7 +112,7 @@ public class ColumnVector implements Vector {
 
     @Override
     public int size() {
-        return matrix.isTransposed ? matrix.columns : matrix.rows;
+        return size;
     }
 
     @Override
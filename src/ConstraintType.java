@@ -0,0 +1,25 @@
+// Enum representing the relation between the left and the right hand side of a constrain
+public enum ConstraintType {
+    LESS_OR_EQUAL("<="), GREATER_OR_EQUAL(">="), EQUAL("=");
+
+    public final String symbol;
+
+    ConstraintType(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Type by its symbol
+     * @param symbol one of "<=", ">=", "="
+     * @return type of the constrain
+     * @throws IllegalArgumentException if there is no type with such symbol
+     */
+    public static ConstraintType of(String symbol) {
+        for (ConstraintType type : values()) {
+            if (type.symbol.equals(symbol)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown constrain type " + symbol);
+    }
+}
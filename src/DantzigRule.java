@@ -0,0 +1,30 @@
+/** Dantzig's rule: the first most negative reduced cost */
+public class DantzigRule implements PricingRule {
+    private int iterations;
+
+    @Override
+    public int choose(SimplexMatrix simplex) {
+        Vector reducedCosts = simplex.objectiveFunction;
+        int enters = 0;
+        for (int j = 1; j < reducedCosts.size(); j++) {
+            if (simplex.cmp.compare(reducedCosts.get(j), reducedCosts.get(enters)) < 0) {
+                enters = j;
+            }
+        }
+        if (reducedCosts.size() == 0 || simplex.cmp.compare(reducedCosts.get(enters), 0d) >= 0) {
+            return -1;
+        }
+        iterations++;
+        return enters;
+    }
+
+    @Override
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String toString() {
+        return "Dantzig's rule";
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.Arrays;
+
+/**
+ * Devex rule: approximation of the steepest edge with reference weights w_j, the entering variable
+ * maximizes d_j^2 / w_j. Weights start from 1 and after a pivot on (r, q) become
+ * max(w_j, (a_rj / a_rq)^2 * w_q), which costs one pass over the pivot row.
+ * <p>
+ * The rule is bound to the tableau it works with, weights are reset when a different tableau is passed
+ */
+public class DevexRule implements PricingRule {
+    private SimplexMatrix simplex;
+    private double[] weights;
+    private int iterations;
+
+    @Override
+    public int choose(SimplexMatrix simplex) {
+        bind(simplex);
+        Vector reducedCosts = simplex.objectiveFunction;
+        int enters = -1;
+        double best = 0;
+        for (int j = 0; j < reducedCosts.size(); j++) {
+            double reducedCost = reducedCosts.get(j);
+            if (simplex.cmp.compare(reducedCost, 0d) < 0 && reducedCost * reducedCost / weights[j] > best) {
+                best = reducedCost * reducedCost / weights[j];
+                enters = j;
+            }
+        }
+        if (enters >= 0) {
+            iterations++;
+        }
+        return enters;
+    }
+
+    @Override
+    public void update(SimplexMatrix simplex, int row, int column) {
+        bind(simplex);
+        Matrix tableau = simplex.methodMatrix;
+        double pivot = tableau.get(row, column);
+        double enteringWeight = weights[column];
+        for (int j = 0; j < weights.length; j++) {
+            if (j != column) {
+                double ratio = tableau.get(row, j) / pivot;
+                weights[j] = Math.max(weights[j], ratio * ratio * enteringWeight);
+            }
+        }
+    }
+
+    @Override
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String toString() {
+        return "Devex";
+    }
+
+    // Resets the reference framework for a new tableau
+    private void bind(SimplexMatrix object) {
+        if (object != simplex || weights.length != object.objectiveFunction.size()) {
+            simplex = object;
+            weights = new double[object.objectiveFunction.size()];
+            Arrays.fill(weights, 1);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+/** Predicate of two primitive doubles, specialization of BiPredicate without boxing */
+@FunctionalInterface
+public interface DoubleBiPredicate {
+    /**
+     * Evaluates the predicate on the given arguments
+     *
+     * @param first  first argument
+     * @param second second argument
+     * @return true if arguments match the predicate, false otherwise
+     */
+    boolean test(double first, double second);
+}
@@ -14,6 +14,16 @@ public class DoublePreciseComparator implements Comparator<Double> {
 
     @Override
     public int compare(Double o1, Double o2) {
+        return compare(o1.doubleValue(), o2.doubleValue());
+    }
+
+    /**
+     * Primitive comparison, which does not box the operands
+     * @param o1 first number
+     * @param o2 second number
+     * @return 1 if o1 is greater than o2 more than on accuracy, -1 if less, 0 otherwise
+     */
+    public int compare(double o1, double o2) {
         double dif = o1 - o2;
         if (dif > accuracy) {
             return 1;
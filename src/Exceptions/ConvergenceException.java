@@ -0,0 +1,8 @@
+package Exceptions;
+
+// Exception for iterative methods, which stop before the solution of the required accuracy is reached
+public class ConvergenceException extends ApplicationProblemException {
+    public ConvergenceException(String message) {
+        super(message);
+    }
+}
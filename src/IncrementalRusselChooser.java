@@ -0,0 +1,229 @@
+import java.util.Arrays;
+
+/**
+ * Russel's approximation without per-step copies of the remaining costs. Chooses exactly the same cells as
+ * {@link RusselChooser} (including tie-breaking and its Double.MIN_VALUE initial maxima).
+ * <p>
+ * Row maxima u_i and column maxima v_j over the active lines are kept with the line, where they are reached,
+ * and each active row keeps its first cheapest delta = c_ij - u_i - v_j. Lines are only ever closed,
+ * so the maxima can only fall and the deltas can only grow: closing a line recomputes only the maxima reached
+ * in it and only the rows, whose delta depended on a changed value. The row minima are kept in a tournament tree, so the global
+ * first (row-major) minimum is found in O(log rows). Memory beyond the costs matrix is O(rows + columns).
+ * <p>
+ * The chooser is bound to the model it works with, so one instance must not be shared between models solved
+ * simultaneously. It is rebuilt automatically when a different (or restarted) model is passed
+ */
+public class IncrementalRusselChooser implements Chooser {
+    /** model, the state corresponds to */
+    private TransportationModel model;
+    /** amount of processed items of model.taken */
+    private int processed;
+
+    private MatrixOperator costs;
+    private int rows;
+    private int columns;
+    private boolean[] isRowActive;
+    private boolean[] isColumnActive;
+    /** maxima of the active lines and the (first) line, where they are reached, -1 for the initial value */
+    private double[] rowMaximum;
+    private int[] rowMaximumAt;
+    private double[] columnMaximum;
+    private int[] columnMaximumAt;
+    /** first minimal delta of each active row and its column (-1 if row has no active cells) */
+    private double[] rowDelta;
+    private int[] rowDeltaAt;
+    /** tournament tree over rows: node k holds the row with the smaller delta of its children, leaves from leafs */
+    private int[] tree;
+    private int leafs;
+    /** scratch flags of the columns with changed maximum */
+    private boolean[] isColumnChanged;
+
+    @Override
+    public Node choose(TransportationModel object) {
+        if (object != model || object.taken.size() < processed) {
+            bind(object);
+        }
+        while (processed < object.taken.size()) {
+            Node node = object.taken.get(processed++);
+            if (node.rowTaken) {
+                closeRow(node.row);
+            } else {
+                closeColumn(node.col);
+            }
+        }
+        int row = rows == 0 ? -1 : tree[1];
+        // the same strict comparison with the initial Double.MAX_VALUE as in RusselChooser
+        if (row < 0 || !(rowDelta[row] < Double.MAX_VALUE)) {
+            return new Node(-1, -1);
+        }
+        return new Node(row, rowDeltaAt[row]);
+    }
+
+    @Override
+    public String toString() {
+        return "Russel's approximation";
+    }
+
+    // Builds the state for the model from scratch
+    private void bind(TransportationModel object) {
+        model = object;
+        processed = 0;
+        costs = object.costs;
+        rows = costs.getRows();
+        columns = costs.getColumns();
+        isRowActive = new boolean[rows];
+        isColumnActive = new boolean[columns];
+        Arrays.fill(isRowActive, true);
+        Arrays.fill(isColumnActive, true);
+        isColumnChanged = new boolean[columns];
+
+        rowMaximum = new double[rows];
+        rowMaximumAt = new int[rows];
+        columnMaximum = new double[columns];
+        columnMaximumAt = new int[columns];
+        Arrays.fill(columnMaximum, Double.MIN_VALUE);
+        Arrays.fill(columnMaximumAt, -1);
+        for (int i = 0; i < rows; i++) {
+            double max = Double.MIN_VALUE;
+            int at = -1;
+            for (int j = 0; j < columns; j++) {
+                double cost = costs.get(i, j);
+                if (cost > max) {
+                    max = cost;
+                    at = j;
+                }
+                if (cost > columnMaximum[j]) {
+                    columnMaximum[j] = cost;
+                    columnMaximumAt[j] = i;
+                }
+            }
+            rowMaximum[i] = max;
+            rowMaximumAt[i] = at;
+        }
+
+        rowDelta = new double[rows];
+        rowDeltaAt = new int[rows];
+        leafs = 1;
+        while (leafs < rows) {
+            leafs *= 2;
+        }
+        tree = new int[2 * leafs];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < rows; i++) {
+            computeDelta(i);
+            tree[leafs + i] = i;
+        }
+        for (int k = leafs - 1; k >= 1; k--) {
+            tree[k] = winner(tree[2 * k], tree[2 * k + 1]);
+        }
+    }
+
+    private void closeRow(int row) {
+        if (!isRowActive[row]) {
+            return;
+        }
+        isRowActive[row] = false;
+        rowDelta[row] = Double.POSITIVE_INFINITY;
+        rowDeltaAt[row] = -1;
+        update(row);
+        boolean isAnyChanged = false;
+        for (int j = 0; j < columns; j++) {
+            isColumnChanged[j] = false;
+            if (isColumnActive[j] && columnMaximumAt[j] == row) {
+                double max = Double.MIN_VALUE;
+                int at = -1;
+                for (int i = 0; i < rows; i++) {
+                    if (isRowActive[i]) {
+                        double cost = costs.get(i, j);
+                        if (cost > max) {
+                            max = cost;
+                            at = i;
+                        }
+                    }
+                }
+                isColumnChanged[j] = max != columnMaximum[j];
+                isAnyChanged |= isColumnChanged[j];
+                columnMaximum[j] = max;
+                columnMaximumAt[j] = at;
+            }
+        }
+        if (!isAnyChanged) {
+            return;
+        }
+        // lowered column maxima only raise the deltas of their columns, so only rows with the minimum in such column
+        // can change
+        for (int i = 0; i < rows; i++) {
+            if (isRowActive[i] && rowDeltaAt[i] >= 0 && isColumnChanged[rowDeltaAt[i]]) {
+                computeDelta(i);
+                update(i);
+            }
+        }
+    }
+
+    private void closeColumn(int column) {
+        if (!isColumnActive[column]) {
+            return;
+        }
+        isColumnActive[column] = false;
+        for (int i = 0; i < rows; i++) {
+            if (!isRowActive[i]) {
+                continue;
+            }
+            if (rowMaximumAt[i] == column) {
+                double max = Double.MIN_VALUE;
+                int at = -1;
+                for (int j = 0; j < columns; j++) {
+                    if (isColumnActive[j]) {
+                        double cost = costs.get(i, j);
+                        if (cost > max) {
+                            max = cost;
+                            at = j;
+                        }
+                    }
+                }
+                rowMaximum[i] = max;
+                rowMaximumAt[i] = at;
+                computeDelta(i);
+                update(i);
+            } else if (rowDeltaAt[i] == column) {
+                computeDelta(i);
+                update(i);
+            }
+        }
+    }
+
+    // First minimal delta over the active columns of the row, the same expression as in RusselChooser
+    private void computeDelta(int row) {
+        double min = Double.POSITIVE_INFINITY;
+        int at = -1;
+        for (int j = 0; j < columns; j++) {
+            if (isColumnActive[j]) {
+                double delta = costs.get(row, j) - rowMaximum[row] - columnMaximum[j];
+                if (delta < min) {
+                    min = delta;
+                    at = j;
+                }
+            }
+        }
+        rowDelta[row] = min;
+        rowDeltaAt[row] = at;
+    }
+
+    // Propagates the changed delta of the row to the root of the tree
+    private void update(int row) {
+        for (int k = (leafs + row) / 2; k >= 1; k /= 2) {
+            tree[k] = winner(tree[2 * k], tree[2 * k + 1]);
+        }
+    }
+
+    // Row with the smaller delta, the left (smaller index) one on ties
+    private int winner(int left, int right) {
+        if (left < 0) {
+            return right;
+        }
+        if (right < 0) {
+            return left;
+        }
+        return rowDelta[right] < rowDelta[left] ? right : left;
+    }
+}
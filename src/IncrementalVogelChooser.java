@@ -0,0 +1,244 @@
+import Exceptions.ApplicationProblemException;
+
+import java.util.Arrays;
+
+/**
+ * Vogel's approximation with incrementally maintained penalties. Chooses exactly the same cells as
+ * {@link VogelChooser} (including tie-breaking), but does not rescan the whole costs matrix on each step.
+ * <p>
+ * For each row (column) the cells are sorted by cost once, and two cursors point to the two cheapest cells
+ * in the still active columns (rows). Lines are only ever deactivated, so cursors only move forward and are
+ * advanced only in the lines, where the last distributed line was one of the two cheapest ones.
+ * One step costs O(rows + columns), the whole approximation O(rows * columns * log) instead of quartic time.
+ * The costs and both orders are kept in heap arrays of rows * columns items, so the costs matrix
+ * (even {@link OffHeapMatrix}) is limited by 2^31 items.
+ * <p>
+ * The chooser is bound to the model it works with, so one instance must not be shared between models solved
+ * simultaneously. It is rebuilt automatically when a different (or restarted) model is passed
+ */
+public class IncrementalVogelChooser implements Chooser {
+    /** model, the state corresponds to */
+    private TransportationModel model;
+    /** amount of processed items of model.taken */
+    private int processed;
+
+    private int rows;
+    private int columns;
+    /** row-major copy of the costs */
+    private double[] costs;
+    private boolean[] isRowActive;
+    private boolean[] isColumnActive;
+    /** for each row, columns sorted by (cost, index); row i occupies [i*columns, (i+1)*columns) */
+    private int[] rowOrder;
+    /** for each column, rows sorted by (cost, index); column j occupies [j*rows, (j+1)*rows) */
+    private int[] columnOrder;
+    /** positions in the order of the cheapest and second cheapest active cells (the end of line if there is none) */
+    private int[] rowFirst;
+    private int[] rowSecond;
+    private int[] columnFirst;
+    private int[] columnSecond;
+    /** penalties of the lines, -1 for the lines without active cells */
+    private double[] rowPenalty;
+    private double[] columnPenalty;
+
+    @Override
+    public String toString() {
+        return "Vogel's approximation";
+    }
+
+    @Override
+    public Node choose(TransportationModel object) throws ApplicationProblemException {
+        if (object != model || object.taken.size() < processed) {
+            bind(object);
+        }
+        while (processed < object.taken.size()) {
+            Node node = object.taken.get(processed++);
+            if (node.rowTaken) {
+                deactivateRow(node.row);
+            } else {
+                deactivateColumn(node.col);
+            }
+        }
+        // first maximal penalty among rows and among columns, rows win only with strictly greater penalty
+        int bestRow = 0;
+        for (int i = 1; i < rows; i++) {
+            if (rowPenalty[i] > rowPenalty[bestRow]) {
+                bestRow = i;
+            }
+        }
+        int bestColumn = 0;
+        for (int j = 1; j < columns; j++) {
+            if (columnPenalty[j] > columnPenalty[bestColumn]) {
+                bestColumn = j;
+            }
+        }
+        if (rowPenalty[bestRow] > columnPenalty[bestColumn]) {
+            int position = rowFirst[bestRow];
+            return new Node(bestRow, rowOrder[bestRow * columns + position]);
+        }
+        if (columnPenalty[bestColumn] < 0) {
+            throw new ApplicationProblemException("There are no accessible cells");
+        }
+        int position = columnFirst[bestColumn];
+        return new Node(columnOrder[bestColumn * rows + position], bestColumn);
+    }
+
+    // Builds the state for the model from scratch
+    private void bind(TransportationModel object) throws ApplicationProblemException {
+        if ((long) object.costs.getRows() * object.costs.getColumns() > Integer.MAX_VALUE) {
+            throw new ApplicationProblemException("Costs matrix (" + object.costs.getRows() + "x"
+                    + object.costs.getColumns() + ") exceeds 2^31 items of the heap copy of Vogel's approximation");
+        }
+        model = object;
+        processed = 0;
+        rows = object.costs.getRows();
+        columns = object.costs.getColumns();
+        costs = new double[rows * columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                costs[i * columns + j] = object.costs.get(i, j);
+            }
+        }
+        isRowActive = new boolean[rows];
+        isColumnActive = new boolean[columns];
+        Arrays.fill(isRowActive, true);
+        Arrays.fill(isColumnActive, true);
+
+        rowOrder = new int[rows * columns];
+        columnOrder = new int[rows * columns];
+        double[] keys = new double[Math.max(rows, columns)];
+        int[] buffer = new int[Math.max(rows, columns)];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                keys[j] = costs[i * columns + j];
+            }
+            sort(rowOrder, i * columns, columns, keys, buffer);
+        }
+        for (int j = 0; j < columns; j++) {
+            for (int i = 0; i < rows; i++) {
+                keys[i] = costs[i * columns + j];
+            }
+            sort(columnOrder, j * rows, rows, keys, buffer);
+        }
+
+        rowFirst = new int[rows];
+        rowSecond = new int[rows];
+        rowPenalty = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            rowSecond[i] = Math.min(1, columns);
+            rowPenalty[i] = columns == 0 ? -1 : rowPenalty(i);
+        }
+        columnFirst = new int[columns];
+        columnSecond = new int[columns];
+        columnPenalty = new double[columns];
+        for (int j = 0; j < columns; j++) {
+            columnSecond[j] = Math.min(1, rows);
+            columnPenalty[j] = rows == 0 ? -1 : columnPenalty(j);
+        }
+    }
+
+    private void deactivateRow(int row) {
+        if (!isRowActive[row]) {
+            return;
+        }
+        isRowActive[row] = false;
+        rowPenalty[row] = -1;
+        for (int j = 0; j < columns; j++) {
+            if (!isColumnActive[j]) {
+                continue;
+            }
+            int base = j * rows;
+            int first = columnFirst[j];
+            int second = columnSecond[j];
+            boolean isTouched = (first < rows && columnOrder[base + first] == row)
+                    || (second < rows && columnOrder[base + second] == row);
+            if (isTouched) {
+                first = nextActive(columnOrder, base, rows, first, isRowActive);
+                second = nextActive(columnOrder, base, rows, Math.max(second, first + 1), isRowActive);
+                columnFirst[j] = first;
+                columnSecond[j] = second;
+                columnPenalty[j] = first < rows ? columnPenalty(j) : -1;
+            }
+        }
+    }
+
+    private void deactivateColumn(int column) {
+        if (!isColumnActive[column]) {
+            return;
+        }
+        isColumnActive[column] = false;
+        columnPenalty[column] = -1;
+        for (int i = 0; i < rows; i++) {
+            if (!isRowActive[i]) {
+                continue;
+            }
+            int base = i * columns;
+            int first = rowFirst[i];
+            int second = rowSecond[i];
+            boolean isTouched = (first < columns && rowOrder[base + first] == column)
+                    || (second < columns && rowOrder[base + second] == column);
+            if (isTouched) {
+                first = nextActive(rowOrder, base, columns, first, isColumnActive);
+                second = nextActive(rowOrder, base, columns, Math.max(second, first + 1), isColumnActive);
+                rowFirst[i] = first;
+                rowSecond[i] = second;
+                rowPenalty[i] = first < columns ? rowPenalty(i) : -1;
+            }
+        }
+    }
+
+    // The same expression as in VogelChooser: |min1 - min2|, where missing second minimum is Double.MAX_VALUE
+    private double rowPenalty(int row) {
+        int base = row * columns;
+        double first = costs[base + rowOrder[base + rowFirst[row]]];
+        double second = rowSecond[row] < columns ? costs[base + rowOrder[base + rowSecond[row]]] : Double.MAX_VALUE;
+        return Math.abs(first - second);
+    }
+
+    private double columnPenalty(int column) {
+        int base = column * rows;
+        double first = costs[columnOrder[base + columnFirst[column]] * columns + column];
+        double second = columnSecond[column] < rows
+                ? costs[columnOrder[base + columnSecond[column]] * columns + column]
+                : Double.MAX_VALUE;
+        return Math.abs(first - second);
+    }
+
+    // First position not before the given one, which refers to an active line (length if there is none)
+    private static int nextActive(int[] order, int base, int length, int position, boolean[] isActive) {
+        while (position < length && !isActive[order[base + position]]) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Writes indices 0..length-1 sorted by keys into order[offset, offset + length).
+     * Merge sort is stable, so equal costs keep ascending indices - the same cell, which the first-minimum scan finds
+     */
+    private static void sort(int[] order, int offset, int length, double[] keys, int[] buffer) {
+        for (int k = 0; k < length; k++) {
+            order[offset + k] = k;
+        }
+        for (int width = 1; width < length; width *= 2) {
+            for (int left = 0; left < length - width; left += 2 * width) {
+                int middle = left + width;
+                int right = Math.min(left + 2 * width, length);
+                int a = left;
+                int b = middle;
+                int k = left;
+                while (a < middle && b < right) {
+                    // strict comparison: equal keys (including 0.0 and -0.0) keep the left one first
+                    buffer[k++] = keys[order[offset + b]] < keys[order[offset + a]] ? order[offset + b++] : order[offset + a++];
+                }
+                while (a < middle) {
+                    buffer[k++] = order[offset + a++];
+                }
+                while (b < right) {
+                    buffer[k++] = order[offset + b++];
+                }
+                System.arraycopy(buffer, left, order, offset + left, right - left);
+            }
+        }
+    }
+}
@@ -2,19 +2,25 @@ import Exceptions.ApplicationProblemException;
 import Exceptions.DimensionsException;
 import Exceptions.SingularityException;
 
-import java.util.Scanner;
+import java.io.IOException;
+import java.nio.file.Path;
 
 public class InteriorTopologicalPoint {
     Vector objectiveFunction;
-    Matrix constrains;
+    /** constraints matrix with slack columns [A | I], dense or sparse */
+    MatrixOperator constrains;
     Vector currentPoint;
     double alpha;
     DoublePreciseComparator cmp;
     OptimizationMode mode;
+    /** normal equations over [A | I], refactorized on each iteration */
+    NormalEquations normalEquations;
+    /** instrumentation of the iterations, null if it is disabled */
+    private SolverMetrics metrics;
 
     public InteriorTopologicalPoint(
             Vector objectiveFunction,
-            Matrix constraints,
+            MatrixOperator constraints,
             Vector rightHandSide,
             Vector initialPoint,
             double alpha,
@@ -32,63 +38,102 @@ public class InteriorTopologicalPoint {
         if (!initialLHS.all((a) -> cmp.compare(a, 0d) >= 0)) {
             throw new ApplicationProblemException("Interior point must be inside the topological region");
         }
-        this.objectiveFunction = objectiveFunction.multiply(mode.factor*-1);
-        this.constrains = constraints.combineRight(Matrix.Identity(constraints.rows));
+        // slack variables do not contribute to the objective function
+        this.objectiveFunction = objectiveFunction.multiply(mode.factor*-1).extend(constraints.getRows());
+        this.constrains = constraints.withSlackColumns();
+        this.normalEquations = new NormalEquations(this.constrains);
         this.alpha = alpha;
-        this.currentPoint = initialPoint.extendWith(initialLHS).multiply(mode.factor*-1);
+        this.currentPoint = initialPoint.extendWith(initialLHS);
         this.mode = mode;
     }
 
+    /**
+     * Attach the instrumentation: iterations, timings of the normal equations and of the step, objective progress
+     *
+     * @param metrics metrics to accumulate, null to disable the instrumentation
+     */
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     public Vector solve() throws DimensionsException, SingularityException {
         while (!iteration()) {
         }
-        return new VectorSlice(currentPoint.multiply(mode.factor*(-1)), 0, currentPoint.size() - constrains.getRows());
+        return new VectorSlice(currentPoint, 0, currentPoint.size() - constrains.getRows());
     }
 
-    // TODO: doc
+    /**
+     * Performs one iteration of the affine scaling method.
+     * Projected gradient P*c~ = c~ - A~^T (A~ A~^T)^-1 A~ c~ (where A~ = A*D, c~ = D*c, D = diag(x))
+     * is computed through the normal equations (A D^2 A^T) w = A D^2 c, so the n x n projection is never formed
+     * @return true if the point does not move anymore (with respect to accuracy), false otherwise
+     * @throws DimensionsException if constraints, objective function and point dimensions are inconsistent
+     * @throws SingularityException if the normal matrix is singular
+     */
     protected boolean iteration() throws DimensionsException, SingularityException {
-        Matrix D = Matrix.diagonal(currentPoint);
-        Matrix ATilda;
+        long time = metrics == null ? 0 : metrics.start();
+        Vector cTilda;
         try {
-            ATilda = constrains.multiply(D);
+            cTilda = elementwiseProduct(currentPoint, objectiveFunction);
         } catch (DimensionsException e) {
-            throw new DimensionsException("The amount of columns in constraints matrix must be equal to the amount of rows in diagonal solution matrix");
+            throw new DimensionsException("The amount of columns in diagonal solution matrix must be equal to the amount of coefficients in objective function vector");
         }
-        Vector cTilda;
+        Vector squaredPoint = currentPoint.getMutated(currentPoint, (a, b) -> a * b);
         try {
-            cTilda = D.multiply(objectiveFunction);
+            normalEquations.factorize(squaredPoint);
         } catch (DimensionsException e) {
-            throw new DimensionsException("The amount of columns in diagonal solution matrix must be equal to the amount of coefficients in objective function vector");
+            throw new DimensionsException("The amount of columns in constraints matrix must be equal to the amount of rows in diagonal solution matrix");
+        } catch (SingularityException e) {
+            throw new SingularityException("Matrix have no pseudo inverse");
+        }
+        Vector w = constrains.multiply(elementwiseProduct(currentPoint, cTilda));
+        double[] multipliers = new double[w.size()];
+        for (int i = 0; i < multipliers.length; i++) {
+            multipliers[i] = w.get(i);
+        }
+        normalEquations.solve(multipliers);
+        if (metrics != null) {
+            time = metrics.record(SolverPhase.FACTORIZATION, time);
         }
-        Matrix hui = ATilda.getPseudoInverse(cmp.accuracy);
-        Matrix P = Matrix.Identity(ATilda.getColumns()).subtract(hui);
-        Vector cp = P.multiply(cTilda);
+        Vector cp = elementwiseProduct(currentPoint,
+                constrains.multiplyTransposed(new ColumnVector(new Matrix(multipliers.length, 1, multipliers), 0)));
+        cp.mutateBy(cTilda, (projection, gradient) -> gradient - projection);
         double factor = alpha / Math.abs(cp.get(cp.theMost((a, b) -> a < b)));
         Vector xTilda = RowVector.one(currentPoint.size(), 1);
-        xTilda.mutateBy(cp, (one, value) -> one + factor * value);
-        Vector xStar = D.multiply(xTilda);
-        if (cmp.compare(xStar.getMutated(currentPoint, (a, b) -> a - b).cardinality(), 0d) <= 0) {
-            currentPoint = xStar;
-            return true;
-        }
+        xTilda.addScaled(cp, factor);
+        Vector xStar = elementwiseProduct(currentPoint, xTilda);
+        boolean isConverged = cmp.compare(xStar.getMutated(currentPoint, (a, b) -> a - b).cardinality(), 0d) <= 0;
         currentPoint = xStar;
-        return false;
+        if (metrics != null) {
+            metrics.record(SolverPhase.UPDATE, time);
+            // objective function is stored with the sign of maximization
+            metrics.iterationFinished("interior point", currentPoint.multiply(objectiveFunction) * -mode.factor);
+        }
+        return isConverged;
     }
 
+    // Product diag(d)*v, computed without materialization of the diagonal matrix
+    private static Vector elementwiseProduct(Vector d, Vector v) throws DimensionsException {
+        if (d.size() != v.size()) {
+            throw new DimensionsException("Vectors of different size cannot be multiplied");
+        }
+        return d.getMutated(v, (a, b) -> a * b);
+    }
 
     /**
      * Solution for 2nd homework
-     * @param args command line arguments
+     * @param args command line arguments, optional path to the file with input
+     * @throws IOException if input cannot be read
      */
-    public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
+    public static void main(String[] args) throws IOException {
+        ProblemReader reader = args.length > 0 ? new ProblemReader(Path.of(args[0])) : new ProblemReader(System.in);
         OptimizationMode mode;
 
         // Read optimization mode (min or max)
         while (true) {
             try {
                 System.out.println("Enter \"min\" for minimization or \"max\" for maximization");
-                mode = OptimizationMode.valueOf(scanner.nextLine().trim().toUpperCase());
+                mode = OptimizationMode.valueOf(reader.readLine().trim().toUpperCase());
                 break;
             } catch (IllegalArgumentException ignored) {
             }
@@ -96,28 +141,28 @@ public class InteriorTopologicalPoint {
 
         // Read objective function coefficients
         System.out.println("Enter objective function coefficients (vector):");
-        Vector objectiveFunction = RowVector.scan(scanner);
+        Vector objectiveFunction = reader.readRowVector();
 
         // Read constraints matrix
         System.out.println("Enter constraint functions coefficients (matrix):");
         Matrix constraints;
         try {
-            constraints = Matrix.scan(scanner);
+            constraints = reader.readMatrix();
         } catch (DimensionsException ignored) {
             throw new RuntimeException("Improper input, constraints is not a proper matrix");
         }
 
         // Read right-hand side values
         System.out.println("Enter right-hand sides for constraints (vector):");
-        Vector rightHandSide = RowVector.scan(scanner);
+        Vector rightHandSide = reader.readRowVector();
 
         // Read initial starting point
         System.out.println("Enter initial point (vector):");
-        Vector initialPoint = RowVector.scan(scanner);
+        Vector initialPoint = reader.readRowVector();
 
         // Read accuracy
         System.out.println("Enter approximation accuracy (ε):");
-        double accuracy = Double.parseDouble(scanner.nextLine());
+        double accuracy = Double.parseDouble(reader.readLine().trim());
 
         // Read alpha value for the Interior Point method
         double[] alphas = {0.5, 0.9};
@@ -149,7 +194,7 @@ public class InteriorTopologicalPoint {
                                 + " value of the objective function (Interior Point, α=" + alpha + "):\n"
                                 + objectiveValue1
                                 + "\nAt the point:\n"
-                                + new VectorSlice(solution1.multiply(mode.factor*(-1)), 0, solution1.size() - constraints.getRows())
+                                + solution1
                 );
             } catch (ApplicationProblemException e) {
                 System.out.println("The method is not applicable!");
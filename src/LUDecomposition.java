@@ -0,0 +1,165 @@
+import Exceptions.ImproperConversionException;
+import Exceptions.SingularityException;
+
+/**
+ * LU factorization with partial pivoting (PA = LU) of a square matrix.
+ * L (unit diagonal) and U are stored together in one flat row-major array
+ */
+public class LUDecomposition {
+    /** dimension of the factorized matrix */
+    private final int size;
+    /** flat array with L below the diagonal and U on and above it */
+    private final double[] lu;
+    /** permutation[i] - index of the original row, which is placed on the i-th position */
+    private final int[] permutation;
+
+    /**
+     * Factorize the square matrix
+     *
+     * @param square   matrix to be factorized (stays unchanged)
+     * @param accuracy pivots with absolute value not greater than accuracy are considered as zeros
+     * @throws ImproperConversionException if matrix is not square
+     * @throws SingularityException        if matrix is singular
+     */
+    public LUDecomposition(Matrix square, double accuracy) throws ImproperConversionException, SingularityException {
+        this(flatten(square), square.getRows(), accuracy);
+    }
+
+    /**
+     * Factorize the square matrix given by its flat row-major representation.
+     * !! Takes the ownership over the array, it will be overwritten by the factors !!
+     *
+     * @param data     row-major items of the matrix (size x size)
+     * @param size     dimension of the matrix
+     * @param accuracy pivots with absolute value not greater than accuracy are considered as zeros
+     * @throws SingularityException if matrix is singular
+     */
+    LUDecomposition(double[] data, int size, double accuracy) throws SingularityException {
+        this.size = size;
+        lu = data;
+        permutation = new int[size];
+        for (int i = 0; i < size; i++) {
+            permutation[i] = i;
+        }
+        for (int k = 0; k < size; k++) {
+            int pivot = k;
+            double maxValue = Math.abs(lu[k * size + k]);
+            for (int i = k + 1; i < size; i++) {
+                double value = Math.abs(lu[i * size + k]);
+                if (value > maxValue) {
+                    maxValue = value;
+                    pivot = i;
+                }
+            }
+            if (maxValue <= accuracy) {
+                throw new SingularityException("Error: matrix is singular");
+            }
+            if (pivot != k) {
+                swapRows(pivot, k);
+            }
+            double diagonal = lu[k * size + k];
+            for (int i = k + 1; i < size; i++) {
+                double factor = lu[i * size + k] / diagonal;
+                lu[i * size + k] = factor;
+                if (factor == 0) {
+                    continue;
+                }
+                for (int j = k + 1; j < size; j++) {
+                    lu[i * size + j] -= factor * lu[k * size + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Dimension of the factorized matrix
+     *
+     * @return amount of rows (and columns) of the matrix
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Solve the system A x = b.
+     * !! Mutate the entry: b is replaced by x !!
+     *
+     * @param b right hand side of the system
+     */
+    public void solve(double[] b) {
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            y[i] = b[permutation[i]];
+        }
+        // forward substitution with unit lower triangular L
+        for (int i = 0; i < size; i++) {
+            double sum = y[i];
+            for (int j = 0; j < i; j++) {
+                sum -= lu[i * size + j] * y[j];
+            }
+            y[i] = sum;
+        }
+        // backward substitution with upper triangular U
+        for (int i = size - 1; i >= 0; i--) {
+            double sum = y[i];
+            for (int j = i + 1; j < size; j++) {
+                sum -= lu[i * size + j] * y[j];
+            }
+            y[i] = sum / lu[i * size + i];
+        }
+        System.arraycopy(y, 0, b, 0, size);
+    }
+
+    /**
+     * Solve the system A^T x = b.
+     * !! Mutate the entry: b is replaced by x !!
+     *
+     * @param b right hand side of the system
+     */
+    public void solveTransposed(double[] b) {
+        // A^T = U^T L^T P, so solve U^T z = b, then L^T w = z, then x = P^T w
+        for (int i = 0; i < size; i++) {
+            double sum = b[i];
+            for (int j = 0; j < i; j++) {
+                sum -= lu[j * size + i] * b[j];
+            }
+            b[i] = sum / lu[i * size + i];
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            double sum = b[i];
+            for (int j = i + 1; j < size; j++) {
+                sum -= lu[j * size + i] * b[j];
+            }
+            b[i] = sum;
+        }
+        double[] w = b.clone();
+        for (int i = 0; i < size; i++) {
+            b[permutation[i]] = w[i];
+        }
+    }
+
+    private void swapRows(int row1, int row2) {
+        for (int j = 0; j < size; j++) {
+            double temp = lu[row1 * size + j];
+            lu[row1 * size + j] = lu[row2 * size + j];
+            lu[row2 * size + j] = temp;
+        }
+        int temp = permutation[row1];
+        permutation[row1] = permutation[row2];
+        permutation[row2] = temp;
+    }
+
+    private static double[] flatten(Matrix square) throws ImproperConversionException {
+        if (square.getRows() != square.getColumns()) {
+            throw new ImproperConversionException("Only square matrices can be LU factorized");
+        }
+        int n = square.getRows();
+        double[] data = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                data[i * n + j] = square.get(i, j);
+            }
+        }
+        return data;
+    }
+}
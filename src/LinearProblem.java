@@ -0,0 +1,196 @@
+import Exceptions.ApplicationProblemException;
+import Exceptions.DimensionsException;
+
+import java.time.Duration;
+
+/**
+ * Linear program "optimize c*x subject to A*x (<=, >= or =) b, x >= 0" solved by {@link SimplexMatrix}
+ * for the {@link BatchSolver}. Inputs are only read, so the same objects can be shared between problems
+ */
+public class LinearProblem implements BatchProblem<LinearProblem.Solution> {
+    final Vector objectiveFunction;
+    final MatrixOperator constrains;
+    final ConstraintType[] types;
+    final Vector rightHandSide;
+    final double accuracy;
+    final OptimizationMode mode;
+    private int maxIterations = Integer.MAX_VALUE;
+    private Duration timeLimit;
+    private Vector lower;
+    private Vector upper;
+    private boolean isPresolved;
+
+    /**
+     * Describe the problem, arguments are the same as in the {@link SimplexMatrix} constructor
+     *
+     * @param objectiveFunction coefficients of the linear function
+     * @param constrains        matrix of constrains over objectiveFunction variables
+     * @param rightHandSide     vector of constrains right hand sides
+     * @param accuracy          accuracy for double comparison
+     * @param mode              either maximization or minimization
+     */
+    public LinearProblem(Vector objectiveFunction,
+                         MatrixOperator constrains,
+                         Vector rightHandSide,
+                         double accuracy,
+                         OptimizationMode mode) {
+        this(objectiveFunction, constrains, null, rightHandSide, accuracy, mode);
+    }
+
+    /**
+     * Describe the problem with constrains of any type
+     *
+     * @param objectiveFunction coefficients of the linear function
+     * @param constrains        matrix of constrains over objectiveFunction variables
+     * @param types             relation of each constrain to its right hand side, null if all of them are "<="
+     * @param rightHandSide     vector of constrains right hand sides
+     * @param accuracy          accuracy for double comparison
+     * @param mode              either maximization or minimization
+     */
+    public LinearProblem(Vector objectiveFunction,
+                         MatrixOperator constrains,
+                         ConstraintType[] types,
+                         Vector rightHandSide,
+                         double accuracy,
+                         OptimizationMode mode) {
+        this.objectiveFunction = objectiveFunction;
+        this.constrains = constrains;
+        this.types = types;
+        this.rightHandSide = rightHandSide;
+        this.accuracy = accuracy;
+        this.mode = mode;
+    }
+
+    /**
+     * Set the upper bound of pivots, so a degenerate problem does not occupy the worker for long
+     *
+     * @param maxIterations maximal amount of pivots
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Set the upper bound of the solution time
+     *
+     * @param timeLimit maximal wall-clock time
+     */
+    public void setTimeLimit(Duration timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * Set bounds of the variables, see {@link SimplexMatrix#setBounds(Vector, Vector)}
+     *
+     * @param lower finite lower bounds of the variables, null for zero ones
+     * @param upper upper bounds of the variables, null for none
+     */
+    public void setBounds(Vector lower, Vector upper) {
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * Reduce the problem by the {@link Presolver} before the solution, the point and value of the reduced problem
+     * are mapped back to the original variables. Presolve is defined for "<=" constrains without variable bounds
+     *
+     * @param isPresolved true to presolve the problem
+     */
+    public void setPresolved(boolean isPresolved) {
+        this.isPresolved = isPresolved;
+    }
+
+    @Override
+    public Solution solve(SolverWorkspace workspace) throws ApplicationProblemException {
+        if (!isPresolved) {
+            return solve(objectiveFunction, constrains, types, rightHandSide, workspace);
+        }
+        if (lower != null || upper != null) {
+            throw new ApplicationProblemException("Presolve does not support bounds of the variables");
+        }
+        for (int i = 0; types != null && i < types.length; i++) {
+            if (types[i] != ConstraintType.LESS_OR_EQUAL) {
+                throw new ApplicationProblemException("Presolve supports only \"<=\" constrains");
+            }
+        }
+        Presolver presolver = new Presolver(objectiveFunction, constrains, rightHandSide, accuracy, mode);
+        Solution reduced = solve(presolver.getObjectiveFunction(), presolver.getConstrains(), null,
+                presolver.getRightHandSide(), workspace);
+        return new Solution(reduced.getStatus(), presolver.postsolve(reduced.getValue()),
+                presolver.postsolve(reduced.getPoint()));
+    }
+
+    private Solution solve(Vector objectiveFunction,
+                           MatrixOperator constrains,
+                           ConstraintType[] types,
+                           Vector rightHandSide,
+                           SolverWorkspace workspace) throws ApplicationProblemException {
+        SimplexMatrix simplex = new SimplexMatrix(objectiveFunction, constrains, types, rightHandSide, accuracy, mode, workspace);
+        // batch already keeps all workers busy, nested parallelism only adds overhead
+        simplex.setParallelism(RowParallelism.SEQUENTIAL);
+        if (lower != null || upper != null) {
+            try {
+                simplex.setBounds(lower, upper);
+            } catch (DimensionsException e) {
+                throw new ApplicationProblemException(e.getMessage());
+            }
+        }
+        simplex.setMaxIterations(maxIterations);
+        if (timeLimit != null) {
+            simplex.setTimeLimit(timeLimit);
+        }
+        SolveStatus status = simplex.solve();
+        // point is copied out of the tableau, so the workspace can be reused
+        Vector point = new RowVector(objectiveFunction.size());
+        Vector state = simplex.getObjectiveFunction();
+        for (int i = 0; i < point.size(); i++) {
+            point.set(i, state.get(i));
+        }
+        return new Solution(status, simplex.getObjectiveFunctionValue(), point);
+    }
+
+    /** Optimal (or the last one, if the budget is exhausted) value and point of the linear program */
+    public static class Solution {
+        private final SolveStatus status;
+        private final double value;
+        private final Vector point;
+
+        Solution(SolveStatus status, double value, Vector point) {
+            this.status = status;
+            this.value = value;
+            this.point = point;
+        }
+
+        /**
+         * Outcome of the solution
+         *
+         * @return {@link SolveStatus#OPTIMAL} or the exhausted budget
+         */
+        public SolveStatus getStatus() {
+            return status;
+        }
+
+        /**
+         * Value of the function
+         *
+         * @return optimal value of the objective function
+         */
+        public double getValue() {
+            return value;
+        }
+
+        /**
+         * Optimal point
+         *
+         * @return values of the problem variables (without slack ones)
+         */
+        public Vector getPoint() {
+            return point;
+        }
+
+        @Override
+        public String toString() {
+            return (status == SolveStatus.OPTIMAL ? "" : status.description + ": ") + value + " at " + point;
+        }
+    }
+}
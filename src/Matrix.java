@@ -8,7 +8,7 @@ import java.util.*;
 /**
  * Represents a matrix, providing methods to manipulate and perform operations on matrices
  */
-public class Matrix {
+public class Matrix implements MatrixOperator {
     /**
      * whether the matrix is transposed
      */
@@ -30,6 +30,31 @@ public class Matrix {
 
     private static final DoublePreciseComparator DEFAULT_CMP = new DoublePreciseComparator(0.001);
 
+    /** execution mode of the row sweeps in toRREF (and default for the simplex pivots) */
+    private static volatile RowParallelism parallelism = RowParallelism.SEQUENTIAL;
+
+    /** size of the square block, processed at once by matrix multiplication (fits in L1 cache) */
+    private static final int TILE = 64;
+
+    /**
+     * Set execution mode for the independent row updates of elimination (inverse, pseudo inverse)
+     * and the default one for the simplex pivots. Results do not depend on the mode
+     *
+     * @param mode sequential or parallel mode
+     */
+    public static void setParallelism(RowParallelism mode) {
+        parallelism = mode;
+    }
+
+    /**
+     * Current execution mode for the independent row updates
+     *
+     * @return sequential or parallel mode
+     */
+    public static RowParallelism getParallelism() {
+        return parallelism;
+    }
+
     /**
      * Scans input to create a matrix from multiple rows of data.
      * Caret must point to start of the new line.
@@ -93,6 +118,16 @@ public class Matrix {
         CMP = cmp;
     }
 
+    // Constructor to wrap an existing flat row-major array (n x m) without copying
+    Matrix(int n, int m, double[] lineRepresentation) {
+        this(n, m, false);
+        if (lineRepresentation.length != n * m) {
+            throw new IllegalArgumentException("Representation of size " + lineRepresentation.length
+                    + " cannot hold matrix " + n + "x" + m);
+        }
+        this.lineRepresentation = lineRepresentation;
+    }
+
     // !!! MUTABLE ENTRY COPY !!!
     // Copy constructor to create a new matrix from an existing one
     public Matrix(Matrix origin) {
@@ -119,6 +154,9 @@ public class Matrix {
     }
 
     private Matrix(int n, int m, boolean isTransposed) {
+        if ((long) n * m > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Matrix " + n + "x" + m + " exceeds 2^31 items of the dense storage");
+        }
         CMP = DEFAULT_CMP;
         this.isTransposed = isTransposed;
         rows = n;
@@ -182,7 +220,7 @@ public class Matrix {
         if (row >= getRows() || col >= getColumns()) {
             throw new IndexOutOfBoundsException("Index is not reachable");
         }
-        return isTransposed ? lineRepresentation[col * rows + row] : lineRepresentation[row * columns + col];
+        return isTransposed ? lineRepresentation[col * columns + row] : lineRepresentation[row * columns + col];
     }
 
     // Set the element at the specified row and column
@@ -191,12 +229,22 @@ public class Matrix {
             throw new IndexOutOfBoundsException("Index is not reachable");
         }
         if (isTransposed) {
-            lineRepresentation[col * rows + row] = value;
+            lineRepresentation[col * columns + row] = value;
         } else {
             lineRepresentation[row * columns + col] = value;
         }
     }
 
+    // Distance in lineRepresentation between neighbour items of one column (considering transposition)
+    int rowStride() {
+        return isTransposed ? 1 : columns;
+    }
+
+    // Distance in lineRepresentation between neighbour items of one row (considering transposition)
+    int columnStride() {
+        return isTransposed ? columns : 1;
+    }
+
     // Get the number of rows in the matrix (considering transposition)
     public int getRows() {
         return isTransposed ? columns : rows;
@@ -261,34 +309,130 @@ public class Matrix {
             throw new DimensionsException("Error: the dimensional problem occurred in Matrix-Matrix multiplication");
         }
 
-        Matrix result = new Matrix(getRows(), another.getColumns());
-        try {
-            for (int i = 0; i < getRows(); i++) {
-                for (int j = 0; j < another.getColumns(); j++) {
-                    result.set(i, j, get(i).multiply(new ColumnVector(another, j)));
+        int n = getRows();
+        int inner = getColumns();
+        int m = another.getColumns();
+        // element (i, k) is stored at [i * rowStride + k * columnStride] for both transposed and plain layouts
+        double[] a = lineRepresentation;
+        int aRowStride = rowStride();
+        int aColumnStride = columnStride();
+        double[] b = another.lineRepresentation;
+        int bRowStride = another.rowStride();
+        int bColumnStride = another.columnStride();
+        double[] c = new double[n * m];
+
+        // tiled i-k-j loop: items of c are accumulated in the same k order as the plain dot product
+        for (int i0 = 0; i0 < n; i0 += TILE) {
+            int iEnd = Math.min(i0 + TILE, n);
+            for (int k0 = 0; k0 < inner; k0 += TILE) {
+                int kEnd = Math.min(k0 + TILE, inner);
+                for (int j0 = 0; j0 < m; j0 += TILE) {
+                    int jEnd = Math.min(j0 + TILE, m);
+                    for (int i = i0; i < iEnd; i++) {
+                        int cRow = i * m;
+                        for (int k = k0; k < kEnd; k++) {
+                            double aik = a[i * aRowStride + k * aColumnStride];
+                            int bRow = k * bRowStride;
+                            for (int j = j0; j < jEnd; j++) {
+                                c[cRow + j] += aik * b[bRow + j * bColumnStride];
+                            }
+                        }
+                    }
                 }
             }
-        } catch (IndexOutOfBoundsException e) {
-            throw new DimensionsException(e.getMessage());
         }
-
-        return result;
+        return new Matrix(n, m, c);
     }
 
     /**
-     * TODO: this doc
+     * Immutably multiply the matrix by a column vector
      *
-     * @param one
-     * @return
-     * @throws DimensionsException
+     * @param one vector of size getColumns()
+     * @return column vector of size getRows()
+     * @throws DimensionsException if vector size does not match amount of columns
      */
     public Vector multiply(Vector one) throws DimensionsException {
         int n = getRows();
-        Vector result = new ColumnVector(n);
+        int m = getColumns();
+        if (one.size() != m) {
+            throw new DimensionsException("Vectors of different size cannot be multiplied");
+        }
+        double[] operand = new double[m];
+        for (int k = 0; k < m; k++) {
+            operand[k] = one.get(k);
+        }
+        int rowStride = rowStride();
+        int columnStride = columnStride();
+        double[] result = new double[n];
         for (int i = 0; i < n; i++) {
-            result.set(i, get(i).multiply(one));
+            int row = i * rowStride;
+            if (columnStride == 1) {
+                result[i] = VectorKernels.dot(lineRepresentation, row, operand, 0, m);
+                continue;
+            }
+            double sum = 0;
+            for (int k = 0; k < m; k++) {
+                sum += lineRepresentation[row + k * columnStride] * operand[k];
+            }
+            result[i] = sum;
         }
-        return result;
+        return new ColumnVector(new Matrix(n, 1, result), 0);
+    }
+
+    @Override
+    public Vector multiplyTransposed(Vector vector) throws DimensionsException {
+        return transposed().multiply(vector);
+    }
+
+    @Override
+    public Vector getColumn(int column) throws IndexOutOfBoundsException {
+        if (column >= getColumns()) {
+            throw new IndexOutOfBoundsException("Index is not reachable");
+        }
+        return new ColumnVector(this, column).clone();
+    }
+
+    @Override
+    public Matrix multiplyDiagonal(Vector diagonal) throws DimensionsException {
+        if (diagonal.size() != getColumns()) {
+            throw new DimensionsException("Error: the dimensional problem occurred in Matrix-Diagonal multiplication");
+        }
+        int n = getRows();
+        int m = getColumns();
+        double[] factors = new double[m];
+        for (int j = 0; j < m; j++) {
+            factors[j] = diagonal.get(j);
+        }
+        int rowStride = rowStride();
+        int columnStride = columnStride();
+        double[] result = new double[n * m];
+        for (int i = 0; i < n; i++) {
+            int row = i * rowStride;
+            for (int j = 0; j < m; j++) {
+                result[i * m + j] = lineRepresentation[row + j * columnStride] * factors[j];
+            }
+        }
+        return new Matrix(n, m, result);
+    }
+
+    @Override
+    public Matrix normalMatrix(Vector weights) throws DimensionsException {
+        return multiplyDiagonal(weights).multiply(transposed());
+    }
+
+    @Override
+    public void copyTo(Matrix target, int startRow, int startColumn) throws DimensionsException {
+        target.absorb(this, startRow, startColumn);
+    }
+
+    @Override
+    public Matrix withSlackColumns() {
+        return combineRight(Identity(getRows()));
+    }
+
+    @Override
+    public Matrix toDense() {
+        return this;
     }
 
     public Matrix getSubmatrix(int startRow, int startColumn, int endRow, int endColumn) {
@@ -372,8 +516,8 @@ public class Matrix {
     // Copies the contents of the reference matrix into the current matrix starting at the specified row and column
     private void absorb(Matrix reference, int startRow, int startCol) throws DimensionsException {
         try {
-            for (int i = 0; i < reference.rows; i++) {
-                for (int j = 0; j < reference.columns; j++) {
+            for (int i = 0; i < reference.getRows(); i++) {
+                for (int j = 0; j < reference.getColumns(); j++) {
                     set(startRow + i, startCol + j, reference.get(i, j));
                 }
             }
@@ -418,13 +562,12 @@ public class Matrix {
             if (CMP.compare(Math.abs(get(i, i)), 0d) < 0) {
                 throw new SingularityException("Error: matrix A is singular");
             }
-            for (int j = i + 1; j < _rows; ++j) {
-                if (CMP.compare(Math.abs(get(j, i)), 0d) < 0) {
-                    continue;
+            int pivot = i;
+            parallelism.forEachRow(i + 1, _rows, _columns, j -> {
+                if (CMP.compare(Math.abs(get(j, pivot)), 0d) >= 0) {
+                    eliminate(j, pivot);
                 }
-                eliminate(j, i);
-                isNegated = !isNegated;
-            }
+            });
         }
 
         double diagonalProduct = 1;
@@ -436,21 +579,22 @@ public class Matrix {
         }
         // eliminate backward
         for (int i = _rows - 1; i >= 0; --i) {
-            for (int j = i - 1; j >= 0; --j) {
-                if (CMP.compare(Math.abs(get(j, i)), 0d) >= 0) {
-                    eliminate(j, i);
+            int pivot = i;
+            parallelism.forEachRow(0, i, _columns, j -> {
+                if (CMP.compare(Math.abs(get(j, pivot)), 0d) >= 0) {
+                    eliminate(j, pivot);
                 }
-            }
+            });
         }
 
         // diagonal normalize
-        for (int i = 0; i < _rows; ++i) {
+        parallelism.forEachRow(0, _rows, _columns, i -> {
             double pivot = get(i, i);
             for (int j = 0; j < _columns; ++j) {
                 set(i, j, get(i, j) / pivot);
             }
             set(i, i, 1d);
-        }
+        });
     }
 
 
@@ -478,10 +622,6 @@ public class Matrix {
 
     private void eliminate(int row, int column) {
         double closureFactor = get(row, column) / get(column, column);
-        new RowVector(this, row)
-                .mutateBy(
-                        new RowVector(this, column),
-                        (cur, piv) -> cur - closureFactor * piv
-                );
+        new RowVector(this, row).addScaled(new RowVector(this, column), -closureFactor);
     }
 }
@@ -0,0 +1,101 @@
+import Exceptions.DimensionsException;
+
+/**
+ * Common read-only abstraction over matrix storages (dense {@link Matrix}, {@link SparseMatrix}, {@link OffHeapMatrix}).
+ * Solvers accept constraints through this interface, so they do not depend on the storage layout
+ */
+public interface MatrixOperator {
+    /**
+     * Get the number of rows in the matrix
+     *
+     * @return amount of rows
+     */
+    int getRows();
+
+    /**
+     * Get the number of columns in the matrix
+     *
+     * @return amount of columns
+     */
+    int getColumns();
+
+    /**
+     * Get the element at the specified row and column
+     *
+     * @param row    index of the row
+     * @param column index of the column
+     * @return value of the element
+     * @throws IndexOutOfBoundsException if position is not defined
+     */
+    double get(int row, int column) throws IndexOutOfBoundsException;
+
+    /**
+     * Immutably multiply the matrix by a column vector (A*x)
+     *
+     * @param vector x vector of size getColumns()
+     * @return column vector of size getRows()
+     * @throws DimensionsException if vector size does not match amount of columns
+     */
+    Vector multiply(Vector vector) throws DimensionsException;
+
+    /**
+     * Immutably multiply the transposed matrix by a column vector (A^T*y)
+     *
+     * @param vector y vector of size getRows()
+     * @return column vector of size getColumns()
+     * @throws DimensionsException if vector size does not match amount of rows
+     */
+    Vector multiplyTransposed(Vector vector) throws DimensionsException;
+
+    /**
+     * Extract a copy of the column
+     *
+     * @param column index of the column
+     * @return dense column vector of size getRows()
+     * @throws IndexOutOfBoundsException if column is not defined
+     */
+    Vector getColumn(int column) throws IndexOutOfBoundsException;
+
+    /**
+     * Immutably multiply the matrix by the diagonal matrix from the right (A*diag(d))
+     * without materialization of the diagonal matrix
+     *
+     * @param diagonal items of the diagonal matrix, size of getColumns()
+     * @return dense matrix of the same dimensions
+     * @throws DimensionsException if diagonal size does not match amount of columns
+     */
+    Matrix multiplyDiagonal(Vector diagonal) throws DimensionsException;
+
+    /**
+     * Immutably compute the matrix of normal equations A*diag(w)*A^T
+     *
+     * @param weights items of the diagonal matrix, size of getColumns()
+     * @return dense symmetric matrix (getRows() x getRows())
+     * @throws DimensionsException if weights size does not match amount of columns
+     */
+    Matrix normalMatrix(Vector weights) throws DimensionsException;
+
+    /**
+     * Copies all the items into the dense matrix
+     *
+     * @param target      dense matrix to be filled
+     * @param startRow    row of the target, where first row will be placed
+     * @param startColumn column of the target, where first column will be placed
+     * @throws DimensionsException if target is not enough to hold the matrix at the given position
+     */
+    void copyTo(Matrix target, int startRow, int startColumn) throws DimensionsException;
+
+    /**
+     * Matrix [A | I] of the same storage kind, used for introduction of slack variables
+     *
+     * @return new matrix with identity block of size getRows() appended on the right
+     */
+    MatrixOperator withSlackColumns();
+
+    /**
+     * Dense representation of the matrix
+     *
+     * @return dense matrix (the same object for dense storage)
+     */
+    Matrix toDense();
+}
@@ -0,0 +1,393 @@
+import Exceptions.ApplicationProblemException;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Optimization phase of the transportation problem: the u-v (MODI) method started from a basic solution
+ * of some {@link Chooser}. The basis is kept as a spanning tree over rows (nodes 0..m-1) and columns
+ * (nodes m..m+n-1) with parent pointers and depths, so potentials and the stepping-stone cycle of the entering
+ * cell are found in O(m + n) per pivot. Degenerate starting solutions (less than m + n - 1 allocations)
+ * are completed with zero allocations.
+ * Reports the cost of the starting solution, the optimal cost, improvement, amount of pivots and time
+ */
+public class ModiOptimizer {
+    /** Upper bound of pivots, protects from cycling on degenerate problems */
+    public static final int DEFAULT_MAX_PIVOTS = 1_000_000;
+
+    private final MatrixOperator costs;
+    private final int rows;
+    private final int columns;
+    private final DoublePreciseComparator cmp;
+    private int maxPivots = DEFAULT_MAX_PIVOTS;
+
+    /** basic cells: k-th cell is (cellRow[k], cellColumn[k]) with allocation flow[k] */
+    private final int[] cellRow;
+    private final int[] cellColumn;
+    private final double[] flow;
+    /** basic columns of the row being priced, marked by the adjacency lists of the tree */
+    private final boolean[] isBasicInRow;
+
+    /** spanning tree, rebuilt after each pivot: parent node, cell to the parent, depth */
+    private final int[] parent;
+    private final int[] parentCell;
+    private final int[] depth;
+    /** potentials: u_i of rows in [0, m), v_j of columns in [m, m+n) */
+    private final double[] potential;
+    /** adjacency lists of the tree: first cell of the node and next cell of the (cell, end) pair */
+    private final int[] head;
+    private final int[] next;
+    private final int[] queue;
+
+    private double initialCost;
+    private double optimalCost;
+    private int pivots;
+    private long nanos;
+    /** cost of the current allocations, changed by theta * (reduced cost) on each pivot */
+    private double currentCost;
+    /** instrumentation of the pivots, null if it is disabled */
+    private SolverMetrics metrics;
+
+    /**
+     * Prepare the optimization of the basic solution
+     *
+     * @param costs       costs of the transportation (supply x demand)
+     * @param allocations allocations of the basic solution (e.g. taken nodes of the solved {@link TransportationModel})
+     * @param accuracy    reduced costs not less than -accuracy are considered as non negative
+     * @throws ApplicationProblemException if allocations do not form a basic solution
+     */
+    public ModiOptimizer(MatrixOperator costs, List<Node> allocations, double accuracy) throws ApplicationProblemException {
+        this.costs = costs;
+        rows = costs.getRows();
+        columns = costs.getColumns();
+        cmp = new DoublePreciseComparator(accuracy);
+        int nodes = rows + columns;
+        int basisSize = nodes - 1;
+        cellRow = new int[basisSize];
+        cellColumn = new int[basisSize];
+        flow = new double[basisSize];
+        isBasicInRow = new boolean[columns];
+        parent = new int[nodes];
+        parentCell = new int[nodes];
+        depth = new int[nodes];
+        potential = new double[nodes];
+        head = new int[nodes];
+        next = new int[2 * basisSize];
+        queue = new int[nodes];
+
+        // allocations must form a forest, it is completed to the spanning tree by zero allocations
+        int[] component = new int[nodes];
+        for (int k = 0; k < nodes; k++) {
+            component[k] = k;
+        }
+        int size = 0;
+        for (Node node : allocations) {
+            if (node.row < 0 || node.row >= rows || node.col < 0 || node.col >= columns) {
+                throw new ApplicationProblemException("Allocation (" + node.row + ", " + node.col + ") is out of the problem");
+            }
+            if (node.provided != 0 && !TransportationModel.isRoute(costs, node.row, node.col)) {
+                throw new ApplicationProblemException("Allocation (" + node.row + ", " + node.col + ") is along the absent route");
+            }
+            if (!union(component, node.row, rows + node.col)) {
+                if (node.provided != 0) {
+                    throw new ApplicationProblemException("Allocations contain a cycle, solution is not basic");
+                }
+                continue;
+            }
+            size = addCell(size, node.row, node.col, node.provided);
+        }
+        // allowed routes first, zero allocations along the absent ones only if the routes do not connect the points
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < rows && size < basisSize; i++) {
+                for (int j = 0; j < columns && size < basisSize; j++) {
+                    if ((pass == 1 || TransportationModel.isRoute(costs, i, j)) && union(component, i, rows + j)) {
+                        size = addCell(size, i, j, 0);
+                    }
+                }
+            }
+        }
+        initialCost = cost();
+        optimalCost = initialCost;
+        currentCost = initialCost;
+    }
+
+    /**
+     * Attach the instrumentation: pivots, timings of the tree rebuild (factorization), reduced costs (pricing),
+     * cycle search (ratio test) and flow update, cost progress
+     *
+     * @param metrics metrics to accumulate, null to disable the instrumentation
+     */
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Set the upper bound of pivots
+     *
+     * @param maxPivots maximal amount of pivots
+     */
+    public void setMaxPivots(int maxPivots) {
+        this.maxPivots = maxPivots;
+    }
+
+    /**
+     * Runs the MODI method until all reduced costs are non negative
+     *
+     * @return optimal allocations (supply x demand)
+     * @throws ApplicationProblemException if the method does not converge in the allowed amount of pivots
+     */
+    public Matrix optimize() throws ApplicationProblemException {
+        long start = System.nanoTime();
+        while (!iteration()) {
+            if (pivots >= maxPivots) {
+                throw new ApplicationProblemException("MODI method does not converge in " + maxPivots + " pivots");
+            }
+        }
+        // zero allocations along absent routes connect the basis only if the routes do not, and they are priced
+        // as zero cost cells, so the solution is valid only while none of them carries the flow
+        for (int k = 0; k < flow.length; k++) {
+            if (cmp.compare(flow[k], 0d) != 0 && !TransportationModel.isRoute(costs, cellRow[k], cellColumn[k])) {
+                throw new ApplicationProblemException("MODI method moves the flow to the absent route ("
+                        + cellRow[k] + ", " + cellColumn[k] + "), solve the problem by the network simplex");
+            }
+        }
+        optimalCost = cost();
+        nanos += System.nanoTime() - start;
+        return getSolution();
+    }
+
+    /**
+     * Performs one pivot of the MODI method.
+     * !! Mutate the entry !!
+     *
+     * @return true if the solution is optimal, false otherwise
+     */
+    protected boolean iteration() {
+        long time = metrics == null ? 0 : metrics.start();
+        buildTree();
+        if (metrics != null) {
+            time = metrics.record(SolverPhase.FACTORIZATION, time);
+        }
+        // entering cell: the most negative reduced cost c_ij - u_i - v_j (first one on ties)
+        int enteringRow = -1;
+        int enteringColumn = -1;
+        double minimum = 0;
+        // only the stored items of the sparse costs are routes, so only they are priced
+        SparseMatrix sparse = costs instanceof SparseMatrix matrix ? matrix : null;
+        for (int i = 0; i < rows; i++) {
+            // row ends of the basic cells of the row
+            for (int edge = head[i]; edge >= 0; edge = next[edge]) {
+                isBasicInRow[cellColumn[edge / 2]] = true;
+            }
+            int from = sparse == null ? 0 : sparse.rowPointers[i];
+            int to = sparse == null ? columns : sparse.rowPointers[i + 1];
+            for (int k = from; k < to; k++) {
+                int j = sparse == null ? k : sparse.columnIndices[k];
+                if (!isBasicInRow[j]) {
+                    double cost = sparse == null ? costs.get(i, j) : sparse.rowValues[k];
+                    double reduced = cost - potential[i] - potential[rows + j];
+                    if (reduced < minimum) {
+                        minimum = reduced;
+                        enteringRow = i;
+                        enteringColumn = j;
+                    }
+                }
+            }
+            for (int edge = head[i]; edge >= 0; edge = next[edge]) {
+                isBasicInRow[cellColumn[edge / 2]] = false;
+            }
+        }
+        if (metrics != null) {
+            time = metrics.record(SolverPhase.PRICING, time);
+        }
+        if (enteringRow < 0 || cmp.compare(minimum, 0d) >= 0) {
+            return true;
+        }
+        // cycle: entering cell (+), then the tree path from its column to its row with alternating signs (-, +, ...)
+        int rowNode = enteringRow;
+        int columnNode = rows + enteringColumn;
+        int leaving = -1;
+        double theta = Double.POSITIVE_INFINITY;
+        int fromColumn = 0;
+        int fromRow = 0;
+        for (int a = columnNode, b = rowNode; a != b; ) {
+            if (depth[a] >= depth[b]) {
+                int cell = parentCell[a];
+                if (fromColumn++ % 2 == 0 && flow[cell] < theta) {
+                    theta = flow[cell];
+                    leaving = cell;
+                }
+                a = parent[a];
+            } else {
+                int cell = parentCell[b];
+                if (fromRow++ % 2 == 0 && flow[cell] < theta) {
+                    theta = flow[cell];
+                    leaving = cell;
+                }
+                b = parent[b];
+            }
+        }
+        if (metrics != null) {
+            time = metrics.record(SolverPhase.RATIO_TEST, time);
+        }
+        fromColumn = 0;
+        fromRow = 0;
+        for (int a = columnNode, b = rowNode; a != b; ) {
+            if (depth[a] >= depth[b]) {
+                int cell = parentCell[a];
+                flow[cell] += fromColumn++ % 2 == 0 ? -theta : theta;
+                a = parent[a];
+            } else {
+                int cell = parentCell[b];
+                flow[cell] += fromRow++ % 2 == 0 ? -theta : theta;
+                b = parent[b];
+            }
+        }
+        cellRow[leaving] = enteringRow;
+        cellColumn[leaving] = enteringColumn;
+        flow[leaving] = theta;
+        pivots++;
+        currentCost += theta * minimum;
+        if (metrics != null) {
+            metrics.record(SolverPhase.UPDATE, time);
+            metrics.iterationFinished("MODI", currentCost);
+        }
+        return false;
+    }
+
+    /**
+     * Current allocations
+     *
+     * @return allocations (supply x demand)
+     */
+    public Matrix getSolution() {
+        Matrix solution = new Matrix(rows, columns);
+        for (int k = 0; k < flow.length; k++) {
+            solution.set(cellRow[k], cellColumn[k], flow[k]);
+        }
+        return solution;
+    }
+
+    /**
+     * Cost of the starting solution
+     *
+     * @return total cost of the allocations from the chooser
+     */
+    public double getInitialCost() {
+        return initialCost;
+    }
+
+    /**
+     * Cost of the optimized solution
+     *
+     * @return total cost after {@link #optimize()}
+     */
+    public double getOptimalCost() {
+        return optimalCost;
+    }
+
+    /**
+     * Improvement over the starting solution
+     *
+     * @return initial cost minus optimal cost
+     */
+    public double getImprovement() {
+        return initialCost - optimalCost;
+    }
+
+    /**
+     * Amount of pivots done by the method
+     *
+     * @return amount of pivots
+     */
+    public int getPivots() {
+        return pivots;
+    }
+
+    /**
+     * Time spent in {@link #optimize()}
+     *
+     * @return elapsed time in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "initial cost " + initialCost + ", optimal cost " + optimalCost
+                + ", improvement " + getImprovement() + " in " + pivots + " pivots ("
+                + nanos / 1_000_000 + " ms)";
+    }
+
+    // Rebuilds parents, depths and potentials of the spanning tree rooted at row 0 (u_0 = 0)
+    private void buildTree() {
+        Arrays.fill(head, -1);
+        for (int k = 0; k < flow.length; k++) {
+            int rowEnd = 2 * k;
+            int columnEnd = 2 * k + 1;
+            next[rowEnd] = head[cellRow[k]];
+            head[cellRow[k]] = rowEnd;
+            next[columnEnd] = head[rows + cellColumn[k]];
+            head[rows + cellColumn[k]] = columnEnd;
+        }
+        Arrays.fill(parent, -2);
+        parent[0] = -1;
+        parentCell[0] = -1;
+        depth[0] = 0;
+        potential[0] = 0;
+        int begin = 0;
+        int end = 0;
+        queue[end++] = 0;
+        while (begin < end) {
+            int node = queue[begin++];
+            for (int edge = head[node]; edge >= 0; edge = next[edge]) {
+                int cell = edge / 2;
+                int other = edge % 2 == 0 ? rows + cellColumn[cell] : cellRow[cell];
+                if (parent[other] != -2) {
+                    continue;
+                }
+                parent[other] = node;
+                parentCell[other] = cell;
+                depth[other] = depth[node] + 1;
+                // c_ij = u_i + v_j on the basic cells
+                potential[other] = costs.get(cellRow[cell], cellColumn[cell]) - potential[node];
+                queue[end++] = other;
+            }
+        }
+    }
+
+    private double cost() {
+        double total = 0;
+        for (int k = 0; k < flow.length; k++) {
+            total += flow[k] * costs.get(cellRow[k], cellColumn[k]);
+        }
+        return total;
+    }
+
+    private int addCell(int size, int row, int column, double provided) {
+        cellRow[size] = row;
+        cellColumn[size] = column;
+        flow[size] = provided;
+        return size + 1;
+    }
+
+    // Joins components of the nodes, returns false if they are already connected
+    private static boolean union(int[] component, int first, int second) {
+        int a = find(component, first);
+        int b = find(component, second);
+        if (a == b) {
+            return false;
+        }
+        component[a] = b;
+        return true;
+    }
+
+    private static int find(int[] component, int node) {
+        while (component[node] != node) {
+            component[node] = component[component[node]];
+            node = component[node];
+        }
+        return node;
+    }
+}
@@ -0,0 +1,507 @@
+import Exceptions.ApplicationProblemException;
+import Exceptions.TransportUnbalancedProblemException;
+
+/**
+ * Primal network simplex for the transportation problem as a min-cost flow: sources (supply) send flow
+ * to sinks (demand) along the allowed routes (arcs) of unlimited capacity.
+ * <p>
+ * Implementation follows the LEMON network simplex: an artificial root connected to every node by big-M arcs
+ * gives the initial strongly feasible spanning tree; the tree is stored by parent, predecessor arc,
+ * preorder thread and subtree sizes; entering arcs are chosen by block search (the most negative reduced cost
+ * in blocks of about sqrt(arcs) arcs); leaving arcs by the strongly feasible rule (the last blocking arc
+ * of the cycle), which excludes cycling on degenerate pivots. Only the subtree, which is moved by a pivot,
+ * is re-threaded and gets new potentials.
+ * <p>
+ * All the data is kept in primitive arrays: about 25 bytes per arc and 60 bytes per node
+ */
+public class NetworkSimplex {
+    private static final byte TREE = 0;
+    private static final byte LOWER = 1;
+    /** default relative accuracy of the reduced costs comparison */
+    public static final double DEFAULT_ACCURACY = 1e-9;
+
+    private final int sources;
+    private final int sinks;
+    /** amount of tree nodes: sources, sinks and the root */
+    private final int nodes;
+    private final int root;
+    /** amount of real arcs, artificial arc of node u has index arcs + u */
+    private final int arcs;
+
+    private final int[] arcSource;
+    private final int[] arcTarget;
+    private final double[] cost;
+    private final double[] flow;
+    private final byte[] state;
+
+    /** supply of the node: positive for sources, negative for sinks */
+    private final double[] supply;
+    private final int[] parent;
+    /** arc to the parent */
+    private final int[] pred;
+    /** whether the arc to the parent goes from the node to the parent */
+    private final boolean[] isPredUp;
+    /** next node in the preorder (cyclic, the last node refers to the root) and the previous one */
+    private final int[] thread;
+    private final int[] reverseThread;
+    /** amount of nodes in the subtree */
+    private final int[] successors;
+    /** node potentials, reduced cost of arc (u, v) is cost + pi_u - pi_v */
+    private final double[] potential;
+
+    /** scratch arrays for the re-threading of a moved subtree */
+    private final int[] subtree;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] stack;
+
+    /** absolute accuracy of the reduced costs, relative to the largest cost */
+    private double costTolerance;
+    /** instrumentation of the pivots, null if it is disabled */
+    private SolverMetrics metrics;
+    /** cost of the current flow (including the artificial arcs), tracked only for the metrics */
+    private double currentCost;
+    private int blockSize;
+    private int nextArc;
+    private int pivots;
+    private double totalCost;
+
+    /**
+     * Describe the problem by the arc list. Arcs are only read during construction
+     *
+     * @param supply     supply of each source
+     * @param demand     demand of each sink
+     * @param arcSources source index of each allowed route
+     * @param arcTargets sink index of each allowed route
+     * @param arcCosts   cost of a unit of flow along each route
+     * @throws TransportUnbalancedProblemException if supply and demand are not equal
+     */
+    public NetworkSimplex(double[] supply, double[] demand, int[] arcSources, int[] arcTargets, double[] arcCosts)
+            throws TransportUnbalancedProblemException {
+        this(supply, demand, arcSources.length);
+        if (arcTargets.length != arcs || arcCosts.length != arcs) {
+            throw new IllegalArgumentException("Arc sources, targets and costs must have the same length");
+        }
+        for (int e = 0; e < arcs; e++) {
+            setArc(e, arcSources[e], arcTargets[e], arcCosts[e]);
+        }
+        initialize();
+    }
+
+    private NetworkSimplex(double[] supply, double[] demand, int arcs) throws TransportUnbalancedProblemException {
+        double supplied = 0;
+        double demanded = 0;
+        for (double value : supply) {
+            supplied += value;
+        }
+        for (double value : demand) {
+            demanded += value;
+        }
+        if (Math.abs(supplied - demanded) > DEFAULT_ACCURACY * Math.max(1, Math.abs(supplied))) {
+            throw new TransportUnbalancedProblemException("Supply and demand is not equal");
+        }
+        sources = supply.length;
+        sinks = demand.length;
+        nodes = sources + sinks + 1;
+        root = nodes - 1;
+        this.arcs = arcs;
+        int allArcs = arcs + nodes - 1;
+        arcSource = new int[allArcs];
+        arcTarget = new int[allArcs];
+        cost = new double[allArcs];
+        flow = new double[allArcs];
+        state = new byte[allArcs];
+
+        this.supply = new double[nodes];
+        System.arraycopy(supply, 0, this.supply, 0, sources);
+        for (int j = 0; j < sinks; j++) {
+            this.supply[sources + j] = -demand[j];
+        }
+        parent = new int[nodes];
+        pred = new int[nodes];
+        isPredUp = new boolean[nodes];
+        thread = new int[nodes];
+        reverseThread = new int[nodes];
+        successors = new int[nodes];
+        potential = new double[nodes];
+        subtree = new int[nodes];
+        firstChild = new int[nodes];
+        nextSibling = new int[nodes];
+        stack = new int[nodes];
+        blockSize = Math.max(10, (int) Math.ceil(Math.sqrt(arcs)));
+    }
+
+    /**
+     * Network of the transportation problem. Every item of the dense costs is a route,
+     * for the {@link SparseMatrix} only the stored items are routes (absent items are forbidden routes).
+     * Arcs are kept in heap arrays, so there may be at most 2^31 of them
+     *
+     * @param costs  costs of the transportation (supply x demand)
+     * @param supply supply values
+     * @param demand demand values
+     * @return network simplex over the routes
+     * @throws TransportUnbalancedProblemException if supply and demand are not equal
+     */
+    public static NetworkSimplex fromCosts(MatrixOperator costs, Vector supply, Vector demand)
+            throws TransportUnbalancedProblemException {
+        double[] supplyValues = new double[supply.size()];
+        double[] demandValues = new double[demand.size()];
+        for (int i = 0; i < supplyValues.length; i++) {
+            supplyValues[i] = supply.get(i);
+        }
+        for (int j = 0; j < demandValues.length; j++) {
+            demandValues[j] = demand.get(j);
+        }
+        if (costs.getRows() != supplyValues.length || costs.getColumns() != demandValues.length) {
+            throw new IllegalArgumentException("Costs matrix must be (supply x demand)");
+        }
+        NetworkSimplex result;
+        if (costs instanceof SparseMatrix sparse) {
+            result = new NetworkSimplex(supplyValues, demandValues, sparse.rowPointers[sparse.rows]);
+            for (int i = 0; i < sparse.rows; i++) {
+                for (int p = sparse.rowPointers[i]; p < sparse.rowPointers[i + 1]; p++) {
+                    result.setArc(p, i, sparse.columnIndices[p], sparse.rowValues[p]);
+                }
+            }
+        } else {
+            int columns = costs.getColumns();
+            if ((long) costs.getRows() * columns > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Dense costs (" + costs.getRows() + "x" + columns
+                        + ") give more than 2^31 routes, pass the allowed routes as SparseMatrix");
+            }
+            result = new NetworkSimplex(supplyValues, demandValues, costs.getRows() * columns);
+            for (int i = 0; i < costs.getRows(); i++) {
+                for (int j = 0; j < columns; j++) {
+                    result.setArc(i * columns + j, i, j, costs.get(i, j));
+                }
+            }
+        }
+        result.initialize();
+        return result;
+    }
+
+    /**
+     * Attach the instrumentation: pivots, timings of the entering arc search (pricing), leaving arc search
+     * (ratio test) and the flow and tree update, cost progress (including the artificial arcs)
+     *
+     * @param metrics metrics to accumulate, null to disable the instrumentation
+     */
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Set amount of arcs, which are scanned for the entering arc before the best of them is taken
+     *
+     * @param blockSize size of the block, the default is sqrt(arcs)
+     */
+    public void setBlockSize(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Finds the optimal flow.
+     * !! Mutate the entry !!
+     *
+     * @return flow along the routes (supply x demand), only non zero flows are stored
+     * @throws ApplicationProblemException if demand cannot be satisfied along the given routes
+     */
+    public SparseMatrix solve() throws ApplicationProblemException {
+        if (metrics != null) {
+            currentCost = 0;
+            for (int e = 0; e < cost.length; e++) {
+                currentCost += flow[e] * cost[e];
+            }
+        }
+        while (!iteration()) {
+            continue;
+        }
+        for (int u = 0; u < root; u++) {
+            if (flow[arcs + u] > DEFAULT_ACCURACY * Math.max(1, Math.abs(supply[u]))) {
+                throw new ApplicationProblemException("Demand cannot be satisfied along the given routes");
+            }
+        }
+        int size = 0;
+        totalCost = 0;
+        for (int e = 0; e < arcs; e++) {
+            if (flow[e] != 0) {
+                size++;
+                totalCost += flow[e] * cost[e];
+            }
+        }
+        int[] rows = new int[size];
+        int[] columns = new int[size];
+        double[] values = new double[size];
+        size = 0;
+        for (int e = 0; e < arcs; e++) {
+            if (flow[e] != 0) {
+                rows[size] = arcSource[e];
+                columns[size] = arcTarget[e] - sources;
+                values[size++] = flow[e];
+            }
+        }
+        return new SparseMatrix(sources, sinks, rows, columns, values);
+    }
+
+    /**
+     * Performs one pivot of the network simplex.
+     * !! Mutate the entry !!
+     *
+     * @return true if the flow is optimal, false otherwise
+     * @throws ApplicationProblemException if the cost is unbounded
+     */
+    protected boolean iteration() throws ApplicationProblemException {
+        long time = metrics == null ? 0 : metrics.start();
+        int entering = findEnteringArc();
+        if (metrics != null) {
+            time = metrics.record(SolverPhase.PRICING, time);
+        }
+        if (entering < 0) {
+            return true;
+        }
+        int join = findJoinNode(entering);
+        // leaving arc: the last blocking arc of the cycle in its orientation (strongly feasible rule)
+        int first = arcSource[entering];
+        int second = arcTarget[entering];
+        double delta = Double.POSITIVE_INFINITY;
+        int leavingNode = -1;
+        boolean isLeavingOnFirstSide = false;
+        for (int u = first; u != join; u = parent[u]) {
+            double limit = isPredUp[u] ? flow[pred[u]] : Double.POSITIVE_INFINITY;
+            if (limit < delta) {
+                delta = limit;
+                leavingNode = u;
+                isLeavingOnFirstSide = true;
+            }
+        }
+        for (int u = second; u != join; u = parent[u]) {
+            double limit = isPredUp[u] ? Double.POSITIVE_INFINITY : flow[pred[u]];
+            if (limit <= delta) {
+                delta = limit;
+                leavingNode = u;
+                isLeavingOnFirstSide = false;
+            }
+        }
+        if (leavingNode < 0) {
+            throw new ApplicationProblemException("Unbounded solution");
+        }
+        if (metrics != null) {
+            time = metrics.record(SolverPhase.RATIO_TEST, time);
+            // potentials are changed by the tree update, so the reduced cost is taken before it
+            currentCost += delta * (cost[entering] + potential[first] - potential[second]);
+        }
+        if (delta > 0) {
+            flow[entering] += delta;
+            for (int u = first; u != join; u = parent[u]) {
+                flow[pred[u]] += isPredUp[u] ? -delta : delta;
+            }
+            for (int u = second; u != join; u = parent[u]) {
+                flow[pred[u]] += isPredUp[u] ? delta : -delta;
+            }
+        }
+        int leaving = pred[leavingNode];
+        flow[leaving] = 0;
+        state[leaving] = LOWER;
+        state[entering] = TREE;
+        int enteringNode = isLeavingOnFirstSide ? first : second;
+        int enteringParent = isLeavingOnFirstSide ? second : first;
+        moveSubtree(leavingNode, enteringNode, enteringParent, entering, join);
+        pivots++;
+        if (metrics != null) {
+            metrics.record(SolverPhase.UPDATE, time);
+            metrics.iterationFinished("network simplex", currentCost);
+        }
+        return false;
+    }
+
+    /**
+     * Total cost of the found flow
+     *
+     * @return sum of flow * cost over the routes
+     */
+    public double getTotalCost() {
+        return totalCost;
+    }
+
+    /**
+     * Amount of pivots done by the method
+     *
+     * @return amount of pivots
+     */
+    public int getPivots() {
+        return pivots;
+    }
+
+    private void setArc(int arc, int source, int sink, double arcCost) {
+        if (source < 0 || source >= sources || sink < 0 || sink >= sinks) {
+            throw new IndexOutOfBoundsException("Route (" + source + ", " + sink + ") is out of the problem");
+        }
+        arcSource[arc] = source;
+        arcTarget[arc] = sources + sink;
+        cost[arc] = arcCost;
+    }
+
+    // Initial strongly feasible tree: every node hangs on the root by its artificial arc
+    private void initialize() {
+        double maxCost = 0;
+        for (int e = 0; e < arcs; e++) {
+            maxCost = Math.max(maxCost, Math.abs(cost[e]));
+            state[e] = LOWER;
+        }
+        double artificialCost = (maxCost + 1) * nodes;
+        parent[root] = -1;
+        pred[root] = -1;
+        successors[root] = nodes;
+        potential[root] = 0;
+        thread[root] = 0;
+        reverseThread[0] = root;
+        for (int u = 0; u < root; u++) {
+            int arc = arcs + u;
+            cost[arc] = artificialCost;
+            state[arc] = TREE;
+            // zero supply arcs are directed to the root as well, so the tree is strongly feasible
+            if (supply[u] >= 0) {
+                arcSource[arc] = u;
+                arcTarget[arc] = root;
+                flow[arc] = supply[u];
+                isPredUp[u] = true;
+                potential[u] = -artificialCost;
+            } else {
+                arcSource[arc] = root;
+                arcTarget[arc] = u;
+                flow[arc] = -supply[u];
+                isPredUp[u] = false;
+                potential[u] = artificialCost;
+            }
+            parent[u] = root;
+            pred[u] = arc;
+            successors[u] = 1;
+            thread[u] = u + 1;
+            reverseThread[u + 1] = u;
+        }
+        costTolerance = DEFAULT_ACCURACY * Math.max(maxCost, 1);
+    }
+
+    // Block search: the most negative reduced cost among the first block containing a negative one
+    private int findEnteringArc() {
+        int best = -1;
+        double minimum = -costTolerance;
+        int counter = 0;
+        for (int k = 0, e = nextArc; k < arcs; k++, e = e + 1 == arcs ? 0 : e + 1) {
+            if (state[e] == LOWER) {
+                double reduced = cost[e] + potential[arcSource[e]] - potential[arcTarget[e]];
+                if (reduced < minimum) {
+                    minimum = reduced;
+                    best = e;
+                }
+            }
+            if (++counter == blockSize) {
+                if (best >= 0) {
+                    nextArc = e + 1 == arcs ? 0 : e + 1;
+                    return best;
+                }
+                counter = 0;
+            }
+        }
+        if (best >= 0) {
+            nextArc = best + 1 == arcs ? 0 : best + 1;
+        }
+        return best;
+    }
+
+    // The first common ancestor of the ends of the arc (ancestors have more successors)
+    private int findJoinNode(int arc) {
+        int u = arcSource[arc];
+        int v = arcTarget[arc];
+        while (u != v) {
+            if (successors[u] < successors[v]) {
+                u = parent[u];
+            } else {
+                v = parent[v];
+            }
+        }
+        return u;
+    }
+
+    /**
+     * Cuts the subtree of leavingNode and hangs it on enteringParent by the entering arc: the stem from
+     * enteringNode to leavingNode is reversed, the subtree gets a new preorder, subtree sizes and potentials
+     */
+    private void moveSubtree(int leavingNode, int enteringNode, int enteringParent, int entering, int join) {
+        int size = successors[leavingNode];
+        // nodes of the subtree are the preorder segment starting at its root
+        for (int k = 0, u = leavingNode; k < size; k++, u = thread[u]) {
+            subtree[k] = u;
+        }
+        int before = reverseThread[leavingNode];
+        int after = thread[subtree[size - 1]];
+        thread[before] = after;
+        reverseThread[after] = before;
+        for (int u = parent[leavingNode]; u != join; u = parent[u]) {
+            successors[u] -= size;
+        }
+        for (int u = enteringParent; u != join; u = parent[u]) {
+            successors[u] += size;
+        }
+
+        // reverse the stem: each node between enteringNode and leavingNode becomes a child of its former child
+        int child = enteringNode;
+        int node = parent[enteringNode];
+        int childPred = pred[enteringNode];
+        boolean isChildUp = isPredUp[enteringNode];
+        parent[enteringNode] = enteringParent;
+        pred[enteringNode] = entering;
+        isPredUp[enteringNode] = arcSource[entering] == enteringNode;
+        while (child != leavingNode) {
+            int nodeParent = parent[node];
+            int nodePred = pred[node];
+            boolean isNodeUp = isPredUp[node];
+            parent[node] = child;
+            pred[node] = childPred;
+            isPredUp[node] = !isChildUp;
+            child = node;
+            node = nodeParent;
+            childPred = nodePred;
+            isChildUp = isNodeUp;
+        }
+
+        for (int k = 0; k < size; k++) {
+            firstChild[subtree[k]] = -1;
+        }
+        for (int k = 0; k < size; k++) {
+            int u = subtree[k];
+            if (u != enteringNode) {
+                nextSibling[u] = firstChild[parent[u]];
+                firstChild[parent[u]] = u;
+            }
+        }
+        // depth-first preorder of the moved subtree is inserted into the thread right after its new parent
+        int previous = enteringParent;
+        int next = thread[enteringParent];
+        int visited = 0;
+        int top = 0;
+        stack[top++] = enteringNode;
+        while (top > 0) {
+            int u = stack[--top];
+            subtree[visited++] = u;
+            thread[previous] = u;
+            reverseThread[u] = previous;
+            previous = u;
+            successors[u] = 1;
+            int arc = pred[u];
+            potential[u] = isPredUp[u] ? potential[parent[u]] - cost[arc] : potential[parent[u]] + cost[arc];
+            for (int c = firstChild[u]; c >= 0; c = nextSibling[c]) {
+                stack[top++] = c;
+            }
+        }
+        thread[previous] = next;
+        reverseThread[next] = previous;
+        // subtree sizes in reverse preorder
+        for (int k = size - 1; k > 0; k--) {
+            successors[parent[subtree[k]]] += successors[subtree[k]];
+        }
+    }
+}
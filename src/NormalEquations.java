@@ -0,0 +1,83 @@
+import Exceptions.DimensionsException;
+import Exceptions.SingularityException;
+
+/**
+ * Normal equations (A*diag(w)*A^T) y = r of the weighted least squares problems,
+ * which appear in the interior point methods. Only the m x m normal matrix is formed and Cholesky factorized,
+ * so one solution costs about m^2*n instead of inversion of n x n projections
+ */
+public class NormalEquations {
+    /** relative (to the largest diagonal item) pivot, below which the normal matrix is considered singular */
+    private static final double RELATIVE_PIVOT_TOLERANCE = 1e-14;
+
+    /** constraints matrix A, dense or sparse */
+    private final MatrixOperator constraints;
+    /** factorization of the normal matrix for the last weights */
+    private CholeskyDecomposition factorization;
+
+    /**
+     * Normal equations over the constraints matrix
+     *
+     * @param constraints matrix A (m x n)
+     */
+    public NormalEquations(MatrixOperator constraints) {
+        this.constraints = constraints;
+    }
+
+    /**
+     * Form and factorize the normal matrix A*diag(w)*A^T for the new weights
+     *
+     * @param weights non negative items of the diagonal, size of A columns
+     * @throws DimensionsException  if weights size does not match amount of columns
+     * @throws SingularityException if the normal matrix is not positive definite
+     */
+    public void factorize(Vector weights) throws DimensionsException, SingularityException {
+        factorize(weights, 0);
+    }
+
+    /**
+     * Form and factorize the regularized normal matrix A*diag(w)*A^T + r*I,
+     * where r is the relative regularization multiplied by the largest diagonal item
+     *
+     * @param weights        non negative items of the diagonal, size of A columns
+     * @param regularization non negative relative regularization
+     * @throws DimensionsException  if weights size does not match amount of columns
+     * @throws SingularityException if the normal matrix is not positive definite
+     */
+    public void factorize(Vector weights, double regularization) throws DimensionsException, SingularityException {
+        Matrix normal = constraints.normalMatrix(weights);
+        int m = normal.getRows();
+        double maxDiagonal = 0;
+        for (int i = 0; i < m; i++) {
+            maxDiagonal = Math.max(maxDiagonal, normal.get(i, i));
+        }
+        if (regularization > 0) {
+            for (int i = 0; i < m; i++) {
+                normal.set(i, i, normal.get(i, i) + regularization * maxDiagonal);
+            }
+        }
+        factorization = new CholeskyDecomposition(normal.lineRepresentation, m, maxDiagonal * RELATIVE_PIVOT_TOLERANCE);
+    }
+
+    /**
+     * Solve (A*diag(w)*A^T) y = r with the last factorized weights.
+     * !! Mutate the entry: r is replaced by y !!
+     *
+     * @param rightHandSide r vector of size m
+     */
+    public void solve(double[] rightHandSide) {
+        if (factorization == null) {
+            throw new IllegalStateException("Normal equations must be factorized before solution");
+        }
+        factorization.solve(rightHandSide);
+    }
+
+    /**
+     * Constraints matrix of the equations
+     *
+     * @return matrix A
+     */
+    public MatrixOperator getConstraints() {
+        return constraints;
+    }
+}
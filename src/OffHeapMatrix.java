@@ -0,0 +1,391 @@
+import Exceptions.DimensionsException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Dense matrix stored outside of the heap: in direct buffers or in a memory mapped file.
+ * Items are kept row by row as little-endian doubles and addressed by long index, so the size is not limited
+ * by 2^31 items of a Java array, and the storage does not put pressure on the garbage collector.
+ * The storage is split into chunks of 2^24 items (128 MiB), each one is a separate buffer.
+ * <p>
+ * Mapped file starts instantly: pages are read by the operating system on the first access,
+ * so e.g. {@link TransportationModel} over the mapped costs touches only the rows it actually reads.
+ * <p>
+ * Only the storage is not limited: results on the heap ({@link #multiplyDiagonal}, {@link #normalMatrix},
+ * dense solutions of {@link TransportationModel#solve()} and {@link ModiOptimizer}) and solvers, which copy
+ * the costs into heap arrays ({@link IncrementalVogelChooser}, {@link NetworkSimplex} over all routes),
+ * are still limited by 2^31 items and reject larger matrices. {@link TransportationModel#solveSparse()}
+ * with a chooser, which reads the costs through the operator (e.g. {@link IncrementalRusselChooser}),
+ * works with any size
+ */
+public class OffHeapMatrix implements MatrixOperator {
+    /** log2 of the amount of items in one chunk */
+    private static final int CHUNK_SHIFT = 24;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    /** number of rows */
+    final int rows;
+    /** number of columns */
+    final int columns;
+    /** buffers of the chunks, kept for the flushing of the mapped file */
+    private final ByteBuffer[] buffers;
+    /** little-endian views of the chunks */
+    private final DoubleBuffer[] chunks;
+
+    /**
+     * Allocate zero matrix in the direct memory
+     *
+     * @param rows    number of rows
+     * @param columns number of columns
+     * @return matrix (rows x columns) filled with zeros
+     */
+    public static OffHeapMatrix allocate(int rows, int columns) {
+        ByteBuffer[] buffers = new ByteBuffer[chunksAmount(rows, columns)];
+        for (int k = 0; k < buffers.length; k++) {
+            buffers[k] = ByteBuffer.allocateDirect(chunkBytes(rows, columns, k));
+        }
+        return new OffHeapMatrix(rows, columns, buffers);
+    }
+
+    /**
+     * Construct the off-heap copy of the matrix
+     *
+     * @param origin matrix to be copied
+     * @return matrix in the direct memory with the same items
+     */
+    public static OffHeapMatrix from(MatrixOperator origin) {
+        OffHeapMatrix result = allocate(origin.getRows(), origin.getColumns());
+        for (int i = 0; i < result.rows; i++) {
+            for (int j = 0; j < result.columns; j++) {
+                result.set(i, j, origin.get(i, j));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Map the matrix, stored in the file, for reading only.
+     * Items must be stored row by row as little-endian doubles starting from the offset
+     *
+     * @param file    path to the file
+     * @param offset  position of the first item in the file (in bytes)
+     * @param rows    number of rows
+     * @param columns number of columns
+     * @return read-only matrix over the file
+     * @throws IOException              if file cannot be opened or mapped
+     * @throws IllegalArgumentException if file is shorter than the matrix
+     */
+    public static OffHeapMatrix map(Path file, long offset, int rows, int columns) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long required = offset + (long) rows * columns * Double.BYTES;
+            if (channel.size() < required) {
+                throw new IllegalArgumentException("File of " + channel.size() + " bytes cannot hold matrix ("
+                        + rows + " x " + columns + ") at the offset " + offset);
+            }
+            return map(channel, FileChannel.MapMode.READ_ONLY, offset, rows, columns);
+        }
+    }
+
+    /**
+     * Map the matrix into the file for reading and writing, the file is created or extended if necessary.
+     * Changes are stored in the file, {@link #force()} guarantees they are written to the device
+     *
+     * @param file    path to the file
+     * @param offset  position of the first item in the file (in bytes)
+     * @param rows    number of rows
+     * @param columns number of columns
+     * @return matrix over the file (zero items for the new file)
+     * @throws IOException if file cannot be opened or mapped
+     */
+    public static OffHeapMatrix create(Path file, long offset, int rows, int columns) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return map(channel, FileChannel.MapMode.READ_WRITE, offset, rows, columns);
+        }
+    }
+
+    // Mappings stay valid after the channel is closed
+    private static OffHeapMatrix map(FileChannel channel,
+                                     FileChannel.MapMode mode,
+                                     long offset,
+                                     int rows,
+                                     int columns) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[chunksAmount(rows, columns)];
+        for (int k = 0; k < buffers.length; k++) {
+            long position = offset + ((long) k << CHUNK_SHIFT) * Double.BYTES;
+            buffers[k] = channel.map(mode, position, chunkBytes(rows, columns, k));
+        }
+        return new OffHeapMatrix(rows, columns, buffers);
+    }
+
+    private OffHeapMatrix(int rows, int columns, ByteBuffer[] buffers) {
+        this.rows = rows;
+        this.columns = columns;
+        this.buffers = buffers;
+        chunks = new DoubleBuffer[buffers.length];
+        for (int k = 0; k < buffers.length; k++) {
+            chunks[k] = buffers[k].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Whether the items cannot be changed (matrix is mapped by {@link #map})
+     *
+     * @return true for the read-only storage
+     */
+    public boolean isReadOnly() {
+        return chunks.length > 0 && chunks[0].isReadOnly();
+    }
+
+    @Override
+    public double get(int row, int column) throws IndexOutOfBoundsException {
+        long index = index(row, column);
+        return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+    }
+
+    /**
+     * Set the item.
+     * !! Mutate the entry !!
+     *
+     * @param row    index of the row
+     * @param column index of the column
+     * @param value  new value of the item
+     * @throws IndexOutOfBoundsException     if position is not defined
+     * @throws UnsupportedOperationException if the matrix is read-only
+     */
+    public void set(int row, int column, double value) throws IndexOutOfBoundsException {
+        if (isReadOnly()) {
+            throw new UnsupportedOperationException("Matrix is mapped for reading only");
+        }
+        long index = index(row, column);
+        chunks[(int) (index >>> CHUNK_SHIFT)].put((int) (index & CHUNK_MASK), value);
+    }
+
+    /**
+     * Copy the row into the array by bulk reads of the chunks
+     *
+     * @param row    index of the row
+     * @param target array of at least getColumns() items
+     * @throws IndexOutOfBoundsException if row is not defined
+     */
+    public void readRow(int row, double[] target) throws IndexOutOfBoundsException {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Index is not reachable");
+        }
+        long index = (long) row * columns;
+        int copied = 0;
+        // row may cross the border of the chunks
+        while (copied < columns) {
+            DoubleBuffer chunk = chunks[(int) (index >>> CHUNK_SHIFT)];
+            int position = (int) (index & CHUNK_MASK);
+            int length = Math.min(columns - copied, chunk.capacity() - position);
+            chunk.get(position, target, copied, length);
+            copied += length;
+            index += length;
+        }
+    }
+
+    /**
+     * Write changes of the file mapped by {@link #create} to the storage device, no-op for other storages
+     */
+    public void force() {
+        for (ByteBuffer buffer : buffers) {
+            if (buffer instanceof MappedByteBuffer mapped && !mapped.isReadOnly()) {
+                mapped.force();
+            }
+        }
+    }
+
+    @Override
+    public Vector multiply(Vector vector) throws DimensionsException {
+        if (vector.size() != columns) {
+            throw new DimensionsException("Error: the dimensional problem occurred in Matrix-Vector multiplication");
+        }
+        double[] operand = toArray(vector);
+        double[] row = new double[columns];
+        double[] result = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            readRow(i, row);
+            double sum = 0;
+            for (int j = 0; j < columns; j++) {
+                sum += row[j] * operand[j];
+            }
+            result[i] = sum;
+        }
+        return new ColumnVector(new Matrix(rows, 1, result), 0);
+    }
+
+    @Override
+    public Vector multiplyTransposed(Vector vector) throws DimensionsException {
+        if (vector.size() != rows) {
+            throw new DimensionsException("Error: the dimensional problem occurred in Matrix-Vector multiplication");
+        }
+        // rows are read sequentially, each one adds y_i * a_i to the result
+        double[] row = new double[columns];
+        double[] result = new double[columns];
+        for (int i = 0; i < rows; i++) {
+            double factor = vector.get(i);
+            if (factor == 0) {
+                continue;
+            }
+            readRow(i, row);
+            for (int j = 0; j < columns; j++) {
+                result[j] += row[j] * factor;
+            }
+        }
+        return new ColumnVector(new Matrix(columns, 1, result), 0);
+    }
+
+    @Override
+    public Vector getColumn(int column) throws IndexOutOfBoundsException {
+        if (column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Index is not reachable");
+        }
+        Vector result = new ColumnVector(rows);
+        for (int i = 0; i < rows; i++) {
+            result.set(i, get(i, column));
+        }
+        return result;
+    }
+
+    @Override
+    public Matrix multiplyDiagonal(Vector diagonal) throws DimensionsException {
+        if (diagonal.size() != columns) {
+            throw new DimensionsException("Error: the dimensional problem occurred in Matrix-Diagonal multiplication");
+        }
+        double[] factors = toArray(diagonal);
+        double[] row = new double[columns];
+        // the result is a heap matrix, its constructor rejects more than 2^31 items
+        Matrix result = new Matrix(rows, columns);
+        double[] items = result.lineRepresentation;
+        for (int i = 0; i < rows; i++) {
+            readRow(i, row);
+            for (int j = 0; j < columns; j++) {
+                items[i * columns + j] = row[j] * factors[j];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Matrix normalMatrix(Vector weights) throws DimensionsException {
+        if (weights.size() != columns) {
+            throw new DimensionsException("Error: the dimensional problem occurred in normal matrix computation");
+        }
+        // item (i, k) is the weighted product of rows i and k, only the lower triangle is computed
+        double[] factors = toArray(weights);
+        double[] scaled = new double[columns];
+        double[] other = new double[columns];
+        Matrix normal = new Matrix(rows, rows);
+        double[] result = normal.lineRepresentation;
+        for (int i = 0; i < rows; i++) {
+            readRow(i, scaled);
+            for (int j = 0; j < columns; j++) {
+                scaled[j] *= factors[j];
+            }
+            for (int k = 0; k <= i; k++) {
+                readRow(k, other);
+                double sum = 0;
+                for (int j = 0; j < columns; j++) {
+                    sum += scaled[j] * other[j];
+                }
+                result[i * rows + k] = sum;
+                result[k * rows + i] = sum;
+            }
+        }
+        return normal;
+    }
+
+    @Override
+    public void copyTo(Matrix target, int startRow, int startColumn) throws DimensionsException {
+        if (startRow + rows > target.getRows() || startColumn + columns > target.getColumns()) {
+            throw new DimensionsException("Matrix" + target.getRows() + "x" + target.getColumns()
+                    + " is not enough to absorb matrix " + rows + "x" + columns + " into the ("
+                    + startRow + ", " + startColumn + ") position");
+        }
+        double[] row = new double[columns];
+        for (int i = 0; i < rows; i++) {
+            readRow(i, row);
+            for (int j = 0; j < columns; j++) {
+                target.set(startRow + i, startColumn + j, row[j]);
+            }
+        }
+    }
+
+    /**
+     * Matrix [A | I] in the direct memory
+     *
+     * @return new off-heap matrix with identity block of size getRows() appended on the right
+     */
+    @Override
+    public OffHeapMatrix withSlackColumns() {
+        OffHeapMatrix result = allocate(rows, columns + rows);
+        double[] row = new double[columns];
+        for (int i = 0; i < rows; i++) {
+            readRow(i, row);
+            for (int j = 0; j < columns; j++) {
+                result.set(i, j, row[j]);
+            }
+            result.set(i, columns + i, 1);
+        }
+        return result;
+    }
+
+    @Override
+    public Matrix toDense() {
+        Matrix result = new Matrix(rows, columns);
+        try {
+            copyTo(result, 0, 0);
+        } catch (DimensionsException e) {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "off-heap matrix (" + rows + " x " + columns + ")" + (isReadOnly() ? ", read-only" : "");
+    }
+
+    private long index(int row, int column) throws IndexOutOfBoundsException {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Index is not reachable");
+        }
+        return (long) row * columns + column;
+    }
+
+    private static double[] toArray(Vector vector) {
+        double[] result = new double[vector.size()];
+        for (int k = 0; k < result.length; k++) {
+            result[k] = vector.get(k);
+        }
+        return result;
+    }
+
+    private static int chunksAmount(int rows, int columns) {
+        return (int) (((long) rows * columns + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    // Size of the k-th chunk in bytes, the last one holds the rest of the items
+    private static int chunkBytes(int rows, int columns, int k) {
+        long items = Math.min(1L << CHUNK_SHIFT, (long) rows * columns - ((long) k << CHUNK_SHIFT));
+        return (int) (items * Double.BYTES);
+    }
+}
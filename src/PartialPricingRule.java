@@ -0,0 +1,65 @@
+/**
+ * Partial pricing: reduced costs are split into segments, and Dantzig's rule is applied to the first segment
+ * (in the cyclic order, starting after the segment of the previous choice), which has a negative reduced cost.
+ * The whole row is scanned only to prove optimality
+ */
+public class PartialPricingRule implements PricingRule {
+    /** Default amount of segments */
+    public static final int DEFAULT_SEGMENTS = 8;
+
+    private final int segments;
+    /** segment to start the next scan from */
+    private int segment;
+    private int iterations;
+
+    public PartialPricingRule() {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * Create the rule
+     * @param segments amount of segments of the reduced costs
+     * @throws IllegalArgumentException if amount of segments is not positive
+     */
+    public PartialPricingRule(int segments) {
+        if (segments <= 0) {
+            throw new IllegalArgumentException("Amount of segments must be positive");
+        }
+        this.segments = segments;
+    }
+
+    @Override
+    public int choose(SimplexMatrix simplex) {
+        Vector reducedCosts = simplex.objectiveFunction;
+        int size = reducedCosts.size();
+        int length = (size + segments - 1) / segments;
+        for (int k = 0; k < segments && length > 0; k++) {
+            int current = (segment + k) % segments;
+            int enters = -1;
+            double best = 0;
+            for (int j = current * length; j < Math.min(size, (current + 1) * length); j++) {
+                double reducedCost = reducedCosts.get(j);
+                if (simplex.cmp.compare(reducedCost, 0d) < 0 && reducedCost < best) {
+                    best = reducedCost;
+                    enters = j;
+                }
+            }
+            if (enters >= 0) {
+                segment = (current + 1) % segments;
+                iterations++;
+                return enters;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String toString() {
+        return "Partial pricing (" + segments + " segments)";
+    }
+}
@@ -0,0 +1,405 @@
+import Exceptions.ApplicationProblemException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Presolve stage of the linear program "optimize c*x subject to A*x <= b, x >= 0", the form solved by
+ * {@link SimplexMatrix} and {@link InteriorTopologicalPoint}. The reductions are repeated until none applies:
+ * <ul>
+ *     <li>empty row "0 <= b_i" is removed (or proves infeasibility if b_i < 0);</li>
+ *     <li>forcing row "a_i*x <= 0" with a_i >= 0 fixes its variables at zero and is removed;</li>
+ *     <li>singleton row "a_ij*x_j <= b_i" with a_ij < 0 is a lower bound: the variable is shifted by it
+ *     (x_j = l_j + x'_j) and the row is removed;</li>
+ *     <li>duplicate row (positive multiple of another one) is removed, the tighter of them is kept;</li>
+ *     <li>dominated column, whose increase does not improve the objective and only tightens the constrains
+ *     (non negative cost of minimization and a_j >= 0), is fixed at zero and removed.</li>
+ * </ul>
+ * The reduced problem has the same form, and {@link #postsolve(Vector)} maps its solution back to the original
+ * variables. The reductions walk the rows and columns of the compressed layouts of {@link SparseMatrix}: constrains
+ * of this type are used in place and reduced to the sparse matrix with no dense copy, others are compressed first
+ * and reduced to the dense matrix. {@link LinearProblem#setPresolved(boolean)} chains presolve, solution
+ * and postsolve for the {@link BatchSolver}
+ */
+public class Presolver {
+    private final OptimizationMode mode;
+    private final DoublePreciseComparator cmp;
+    private final int rows;
+    private final int columns;
+    /** constrains in CSR and CSC layouts, they are not changed: removed rows and columns are only marked */
+    private final SparseMatrix constrains;
+    private final double[] rightHandSide;
+    private final double[] costs;
+    private final boolean[] isRowActive;
+    private final boolean[] isColumnActive;
+    /** shifts of the variables by their lower bounds: x_j = shift_j + x'_j */
+    private final double[] shift;
+
+    private final Vector reducedObjectiveFunction;
+    private final MatrixOperator reducedConstrains;
+    private final Vector reducedRightHandSide;
+    /** original index of each reduced column */
+    private final int[] columnOrigin;
+    private int removedRows;
+    private int removedColumns;
+
+    /**
+     * Reduce the problem
+     *
+     * @param objectiveFunction coefficients of the linear function
+     * @param constrains        matrix of constrains over objectiveFunction variables
+     * @param rightHandSide     vector of constrains right hand sides
+     * @param accuracy          items not greater than accuracy by absolute value are considered as zero
+     * @param mode              either maximization or minimization
+     * @throws ApplicationProblemException if the reductions prove that constrains have no feasible point
+     */
+    public Presolver(Vector objectiveFunction,
+                     MatrixOperator constrains,
+                     Vector rightHandSide,
+                     double accuracy,
+                     OptimizationMode mode) throws ApplicationProblemException {
+        this.mode = mode;
+        cmp = new DoublePreciseComparator(accuracy);
+        rows = constrains.getRows();
+        columns = constrains.getColumns();
+        this.constrains = constrains instanceof SparseMatrix sparse ? sparse : SparseMatrix.from(constrains);
+        this.rightHandSide = new double[rows];
+        costs = new double[columns];
+        for (int i = 0; i < rows; i++) {
+            this.rightHandSide[i] = rightHandSide.get(i);
+        }
+        for (int j = 0; j < objectiveFunction.size(); j++) {
+            costs[j] = objectiveFunction.get(j);
+        }
+        isRowActive = new boolean[rows];
+        isColumnActive = new boolean[columns];
+        Arrays.fill(isRowActive, true);
+        Arrays.fill(isColumnActive, true);
+        shift = new double[columns];
+
+        boolean isChanged = true;
+        while (isChanged) {
+            isChanged = reduceRows();
+            isChanged |= removeDuplicateRows();
+            isChanged |= removeDominatedColumns();
+        }
+
+        int reducedRows = rows - removedRows;
+        int reducedColumns = columns - removedColumns;
+        columnOrigin = new int[reducedColumns];
+        // reduced index of each original column, -1 for removed ones
+        int[] columnPosition = new int[columns];
+        reducedObjectiveFunction = new RowVector(reducedColumns);
+        reducedRightHandSide = new RowVector(reducedRows);
+        for (int j = 0, column = 0; j < columns; j++) {
+            columnPosition[j] = isColumnActive[j] ? column : -1;
+            if (isColumnActive[j]) {
+                reducedObjectiveFunction.set(column, costs[j]);
+                columnOrigin[column++] = j;
+            }
+        }
+        // remaining entries as triplets
+        int count = 0;
+        for (int i = 0; i < rows; i++) {
+            if (!isRowActive[i]) {
+                continue;
+            }
+            for (int k = this.constrains.rowPointers[i]; k < this.constrains.rowPointers[i + 1]; k++) {
+                if (isColumnActive[this.constrains.columnIndices[k]]) {
+                    count++;
+                }
+            }
+        }
+        int[] rowIndex = new int[count];
+        int[] columnIndex = new int[count];
+        double[] values = new double[count];
+        count = 0;
+        for (int i = 0, row = 0; i < rows; i++) {
+            if (!isRowActive[i]) {
+                continue;
+            }
+            for (int k = this.constrains.rowPointers[i]; k < this.constrains.rowPointers[i + 1]; k++) {
+                int column = columnPosition[this.constrains.columnIndices[k]];
+                if (column >= 0) {
+                    rowIndex[count] = row;
+                    columnIndex[count] = column;
+                    values[count++] = this.constrains.rowValues[k];
+                }
+            }
+            reducedRightHandSide.set(row++, this.rightHandSide[i]);
+        }
+        if (constrains instanceof SparseMatrix) {
+            reducedConstrains = new SparseMatrix(reducedRows, reducedColumns, rowIndex, columnIndex, values);
+        } else {
+            Matrix reduced = new Matrix(reducedRows, reducedColumns);
+            for (int k = 0; k < count; k++) {
+                reduced.set(rowIndex[k], columnIndex[k], values[k]);
+            }
+            reducedConstrains = reduced;
+        }
+    }
+
+    /**
+     * Coefficients of the reduced linear function
+     *
+     * @return coefficients over the remaining variables
+     */
+    public Vector getObjectiveFunction() {
+        return reducedObjectiveFunction;
+    }
+
+    /**
+     * Constrains of the reduced problem
+     *
+     * @return matrix (remaining rows x remaining variables)
+     */
+    public MatrixOperator getConstrains() {
+        return reducedConstrains;
+    }
+
+    /**
+     * Right hand sides of the reduced problem
+     *
+     * @return right hand sides of the remaining constrains (shifted by the lower bounds)
+     */
+    public Vector getRightHandSide() {
+        return reducedRightHandSide;
+    }
+
+    /**
+     * Map the point of the original problem to the reduced one (e.g. the initial point of the interior point method)
+     *
+     * @param point values of the original variables
+     * @return values of the remaining variables
+     */
+    public Vector reduce(Vector point) {
+        Vector result = new RowVector(columnOrigin.length);
+        for (int column = 0; column < columnOrigin.length; column++) {
+            result.set(column, point.get(columnOrigin[column]) - shift[columnOrigin[column]]);
+        }
+        return result;
+    }
+
+    /**
+     * Map the solution of the reduced problem back to the original variables
+     *
+     * @param reducedPoint values of the remaining variables (extra items, like slack variables, are ignored)
+     * @return values of all the original variables
+     */
+    public Vector postsolve(Vector reducedPoint) {
+        Vector result = new RowVector(columns);
+        for (int j = 0; j < columns; j++) {
+            result.set(j, shift[j]);
+        }
+        for (int column = 0; column < columnOrigin.length; column++) {
+            int j = columnOrigin[column];
+            result.set(j, shift[j] + reducedPoint.get(column));
+        }
+        return result;
+    }
+
+    /**
+     * Map the optimal value of the reduced problem back to the original one
+     *
+     * @param reducedValue value of the reduced objective function
+     * @return value of the original objective function
+     */
+    public double postsolve(double reducedValue) {
+        double value = reducedValue;
+        for (int j = 0; j < columns; j++) {
+            value += costs[j] * shift[j];
+        }
+        return value;
+    }
+
+    /**
+     * Amount of removed rows
+     *
+     * @return amount of constrains removed by the reductions
+     */
+    public int getRemovedRows() {
+        return removedRows;
+    }
+
+    /**
+     * Amount of removed columns
+     *
+     * @return amount of variables fixed by the reductions
+     */
+    public int getRemovedColumns() {
+        return removedColumns;
+    }
+
+    @Override
+    public String toString() {
+        return "removed " + removedRows + " of " + rows + " rows and " + removedColumns + " of " + columns + " columns";
+    }
+
+    // Empty, forcing and singleton rows
+    private boolean reduceRows() throws ApplicationProblemException {
+        boolean isChanged = false;
+        for (int i = 0; i < rows; i++) {
+            if (!isRowActive[i]) {
+                continue;
+            }
+            int nonZeros = 0;
+            int last = -1;
+            boolean isNonNegative = true;
+            for (int k = constrains.rowPointers[i]; k < constrains.rowPointers[i + 1]; k++) {
+                int j = constrains.columnIndices[k];
+                if (isColumnActive[j] && cmp.compare(Math.abs(constrains.rowValues[k]), 0d) > 0) {
+                    nonZeros++;
+                    last = k;
+                    isNonNegative &= constrains.rowValues[k] > 0;
+                }
+            }
+            if (isNonNegative) {
+                // a_i * x >= 0 for all x >= 0
+                if (cmp.compare(rightHandSide[i], 0d) < 0) {
+                    throw new ApplicationProblemException("Constrains have no feasible point");
+                }
+                if (nonZeros == 0) {
+                    removeRow(i);
+                    isChanged = true;
+                } else if (cmp.compare(rightHandSide[i], 0d) == 0) {
+                    for (int k = constrains.rowPointers[i]; k < constrains.rowPointers[i + 1]; k++) {
+                        int j = constrains.columnIndices[k];
+                        if (isColumnActive[j] && cmp.compare(constrains.rowValues[k], 0d) > 0) {
+                            removeColumn(j);
+                        }
+                    }
+                    removeRow(i);
+                    isChanged = true;
+                }
+            } else if (nonZeros == 1) {
+                // a_ij * x_j <= b_i with a_ij < 0 is x_j >= b_i / a_ij
+                double lower = rightHandSide[i] / constrains.rowValues[last];
+                if (lower > 0) {
+                    shiftColumn(constrains.columnIndices[last], lower);
+                }
+                removeRow(i);
+                isChanged = true;
+            }
+        }
+        return isChanged;
+    }
+
+    // Rows, which are positive multiples of each other, only the tightest of them is kept
+    private boolean removeDuplicateRows() {
+        Map<List<Long>, List<Integer>> kept = new HashMap<>();
+        double[] scale = new double[rows];
+        boolean isChanged = false;
+        for (int i = 0; i < rows; i++) {
+            if (!isRowActive[i]) {
+                continue;
+            }
+            // key is the row divided by its first non zero item magnitude, rounded to the float precision,
+            // so it only gathers candidates, which are compared item by item
+            List<Long> key = new ArrayList<>();
+            for (int k = constrains.rowPointers[i]; k < constrains.rowPointers[i + 1]; k++) {
+                int j = constrains.columnIndices[k];
+                double value = constrains.rowValues[k];
+                if (isColumnActive[j] && cmp.compare(Math.abs(value), 0d) > 0) {
+                    if (scale[i] == 0) {
+                        scale[i] = Math.abs(value);
+                    }
+                    key.add((long) j);
+                    key.add((long) Float.floatToIntBits((float) (value / scale[i])));
+                }
+            }
+            List<Integer> candidates = kept.computeIfAbsent(key, (ignored) -> new ArrayList<>());
+            int position = 0;
+            while (position < candidates.size() && !isProportional(candidates.get(position), i, scale)) {
+                position++;
+            }
+            if (position == candidates.size()) {
+                candidates.add(i);
+                continue;
+            }
+            int k = candidates.get(position);
+            if (rightHandSide[i] / scale[i] < rightHandSide[k] / scale[k]) {
+                candidates.set(position, i);
+                removeRow(k);
+            } else {
+                removeRow(i);
+            }
+            isChanged = true;
+        }
+        return isChanged;
+    }
+
+    // Whether the rows have the same non zero items after the division by their scales (up to the accuracy)
+    private boolean isProportional(int first, int second, double[] scale) {
+        int p = constrains.rowPointers[first];
+        int q = constrains.rowPointers[second];
+        while (true) {
+            p = nextItem(first, p);
+            q = nextItem(second, q);
+            int pEnd = constrains.rowPointers[first + 1];
+            int qEnd = constrains.rowPointers[second + 1];
+            if (p == pEnd || q == qEnd) {
+                return p == pEnd && q == qEnd;
+            }
+            double ratio = constrains.rowValues[p] / scale[first];
+            if (constrains.columnIndices[p] != constrains.columnIndices[q]
+                    || cmp.compare(ratio, constrains.rowValues[q] / scale[second]) != 0) {
+                return false;
+            }
+            p++;
+            q++;
+        }
+    }
+
+    // Position of the next non zero item of the row in an active column, the end of the row if there is none
+    private int nextItem(int row, int position) {
+        int end = constrains.rowPointers[row + 1];
+        while (position < end && (!isColumnActive[constrains.columnIndices[position]]
+                || cmp.compare(Math.abs(constrains.rowValues[position]), 0d) <= 0)) {
+            position++;
+        }
+        return position;
+    }
+
+    // Columns, which are optimal at zero: increase neither improves the objective nor relaxes any constrain
+    private boolean removeDominatedColumns() {
+        boolean isChanged = false;
+        for (int j = 0; j < columns; j++) {
+            if (!isColumnActive[j] || cmp.compare(costs[j] * mode.factor, 0d) < 0) {
+                continue;
+            }
+            boolean isDominated = true;
+            for (int k = constrains.columnPointers[j]; k < constrains.columnPointers[j + 1] && isDominated; k++) {
+                isDominated = !isRowActive[constrains.rowIndices[k]]
+                        || cmp.compare(constrains.columnValues[k], 0d) >= 0;
+            }
+            if (isDominated) {
+                removeColumn(j);
+                isChanged = true;
+            }
+        }
+        return isChanged;
+    }
+
+    // x_j = delta + x'_j: constrains of the remaining rows lose a_ij * delta
+    private void shiftColumn(int column, double delta) {
+        for (int k = constrains.columnPointers[column]; k < constrains.columnPointers[column + 1]; k++) {
+            if (isRowActive[constrains.rowIndices[k]]) {
+                rightHandSide[constrains.rowIndices[k]] -= constrains.columnValues[k] * delta;
+            }
+        }
+        shift[column] += delta;
+    }
+
+    private void removeRow(int row) {
+        isRowActive[row] = false;
+        removedRows++;
+    }
+
+    private void removeColumn(int column) {
+        isColumnActive[column] = false;
+        removedColumns++;
+    }
+}
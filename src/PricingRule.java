@@ -0,0 +1,27 @@
+/**
+ * Strategy of the entering variable choice in {@link SimplexMatrix}. Rules see the whole tableau:
+ * row 0 holds the reduced costs, rows 1..m the constrains in the current basis
+ */
+public interface PricingRule {
+    /**
+     * Choose the entering variable
+     * @param simplex tableau of the current iteration
+     * @return index of the column with negative reduced cost, -1 if there is none (solution is optimal)
+     */
+    int choose(SimplexMatrix simplex);
+
+    /**
+     * Notification about the pivot, called before the tableau is changed
+     * @param simplex tableau before the pivot
+     * @param row index of the pivot row in the tableau (1 for the first constrain)
+     * @param column index of the entering variable
+     */
+    default void update(SimplexMatrix simplex, int row, int column) {
+    }
+
+    /**
+     * Amount of entering variables chosen by the rule
+     * @return amount of successful choices
+     */
+    int getIterations();
+}
@@ -0,0 +1,401 @@
+import Exceptions.ApplicationProblemException;
+import Exceptions.ConvergenceException;
+import Exceptions.DimensionsException;
+import Exceptions.SingularityException;
+
+import java.util.Arrays;
+
+/**
+ * Mehrotra predictor-corrector primal-dual interior point method for "max/min c*x, A*x <= b, x >= 0".
+ * The problem is solved in the standard form [A | I] (x, s) = b with slack variables.
+ * Unlike {@link InteriorTopologicalPoint} the starting point is built by the method itself (and may be infeasible),
+ * and the amount of iterations practically does not depend on the problem size.
+ * Both predictor and corrector directions reuse one factorization of the {@link NormalEquations} per iteration.
+ * <p>
+ * On degenerate problems the residuals may stall just above the tolerance while the complementarity vanishes.
+ * Then the best point is returned, if its infeasibility and gap are within sqrt(accuracy),
+ * otherwise {@link ConvergenceException} is thrown. The weights x/s of the normal equations are clamped
+ * to [1 / {@link #WEIGHT_LIMIT}, {@link #WEIGHT_LIMIT}], so the factorization never sees overflowed values
+ */
+public class PrimalDualInteriorPoint {
+    /** Default limit of iterations, normally tens of them are enough */
+    public static final int DEFAULT_MAX_ITERATIONS = 200;
+    /** part of the step to the boundary, which is made on each iteration */
+    private static final double STEP_FACTOR = 0.99;
+    /** norm of the iterates, after which the problem is considered infeasible or unbounded */
+    private static final double DIVERGENCE_LIMIT = 1e12;
+    /** bound of the weights x/s and of their inverse in the normal equations */
+    static final double WEIGHT_LIMIT = 1e12;
+    /** amount of successive iterations without improvement of the best point, after which the method stops */
+    private static final int STALLING_ITERATIONS = 5;
+
+    /** Costs of all variables (including slack ones), multiplied by the mode factor (problem is minimized) */
+    final double[] costs;
+    /** Right hand side b */
+    final double[] rightHandSide;
+    /** Constraints with slack columns [A | I] */
+    final MatrixOperator constrains;
+    /** amount of variables of the original problem */
+    final int variables;
+    final OptimizationMode mode;
+    /** relative tolerance of the primal and dual infeasibility and of the duality gap */
+    final double accuracy;
+    int maxIterations = DEFAULT_MAX_ITERATIONS;
+
+    private final NormalEquations normalEquations;
+    /** primal variables */
+    private double[] x;
+    /** dual variables (multipliers of constraints) */
+    private double[] y;
+    /** dual slacks (reduced costs) */
+    private double[] s;
+    private int iterations;
+    /** point with the least relative infeasibility and gap (the largest of them) found so far */
+    private double[] bestX;
+    private double[] bestY;
+    private double[] bestS;
+    private double bestError;
+    private int stallingIterations;
+
+    /**
+     * Construct the primal-dual interior point solver
+     * @param objectiveFunction Coefficients vector of linear function in R^(objectiveFunction.size())
+     * @param constrains matrix of constrains over objectiveFunction variables
+     *                   (constrain - inequality in form "x_1 + ... + x_n <= u_j"), dense or sparse
+     * @param rightHandSide vector of constrains right hand sides (u_1, u_2 ... u_m)
+     * @param accuracy relative tolerance of infeasibility and duality gap of the solution
+     * @param mode either solution for the maximization or for the minimization problem
+     * @throws DimensionsException if dimensions of the problem are inconsistent
+     */
+    public PrimalDualInteriorPoint(Vector objectiveFunction,
+                                   MatrixOperator constrains,
+                                   Vector rightHandSide,
+                                   double accuracy,
+                                   OptimizationMode mode) throws DimensionsException {
+        if (constrains.getRows() != rightHandSide.size() || constrains.getColumns() != objectiveFunction.size()) {
+            throw new DimensionsException("Objective function must have size of matrix columns amount "
+                    + "and right hand side must have size of matrix rows amount");
+        }
+        int m = constrains.getRows();
+        variables = constrains.getColumns();
+        this.constrains = constrains.withSlackColumns();
+        this.mode = mode;
+        this.accuracy = accuracy;
+        costs = new double[variables + m];
+        for (int j = 0; j < variables; j++) {
+            costs[j] = objectiveFunction.get(j) * mode.factor;
+        }
+        this.rightHandSide = new double[m];
+        for (int i = 0; i < m; i++) {
+            this.rightHandSide[i] = rightHandSide.get(i);
+        }
+        normalEquations = new NormalEquations(this.constrains);
+    }
+
+    /**
+     * Construct the primal-dual interior point solver with accuracy 1e-8
+     * @param objectiveFunction Coefficients vector of linear function in R^(objectiveFunction.size())
+     * @param constrains matrix of constrains over objectiveFunction variables, dense or sparse
+     * @param rightHandSide vector of constrains right hand sides (u_1, u_2 ... u_m)
+     * @param mode either solution for the maximization or for the minimization problem
+     * @throws DimensionsException if dimensions of the problem are inconsistent
+     */
+    public PrimalDualInteriorPoint(Vector objectiveFunction, MatrixOperator constrains, Vector rightHandSide, OptimizationMode mode) throws DimensionsException {
+        this(objectiveFunction, constrains, rightHandSide, 1e-8, mode);
+    }
+
+    /**
+     * Set limit of iterations
+     * @param maxIterations positive amount of iterations
+     */
+    public void setMaxIterations(int maxIterations) {
+        if (maxIterations <= 0) {
+            throw new IllegalArgumentException("Amount of iterations must be positive");
+        }
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Solve the problem
+     * @return optimal values of the original variables
+     * @throws ConvergenceException        if method did not converge in the allowed iterations or stalled
+     *                                     far from the optimum
+     * @throws ApplicationProblemException if the problem is infeasible or unbounded
+     */
+    public Vector solve() throws ApplicationProblemException {
+        try {
+            start();
+            iterations = 0;
+            bestError = Double.POSITIVE_INFINITY;
+            stallingIterations = 0;
+            while (!iteration()) {
+                if (++iterations >= maxIterations) {
+                    throw new ConvergenceException("Interior point method did not converge in "
+                            + maxIterations + " iterations");
+                }
+            }
+        } catch (DimensionsException e) {
+            throw new RuntimeException(e);
+        }
+        Vector result = new RowVector(variables);
+        for (int j = 0; j < variables; j++) {
+            result.set(j, x[j]);
+        }
+        return result;
+    }
+
+    /**
+     * Value of the function
+     * @return the value of the objective function in the current point
+     */
+    public double getObjectiveFunctionValue() {
+        return dot(costs, x) * mode.factor;
+    }
+
+    /**
+     * Amount of iterations, made by the last solution
+     * @return amount of iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    // Mehrotra's heuristic of the starting point
+    private void start() throws DimensionsException, ApplicationProblemException {
+        int n = costs.length;
+        double[] ones = new double[n];
+        Arrays.fill(ones, 1);
+        factorize(ones);
+        // x = A^T (A A^T)^-1 b - least norm solution of A x = b
+        double[] w = rightHandSide.clone();
+        normalEquations.solve(w);
+        x = multiplyTransposed(w);
+        // y = (A A^T)^-1 A c, s = c - A^T y - least squares dual solution
+        y = multiply(costs);
+        normalEquations.solve(y);
+        s = multiplyTransposed(y);
+        for (int j = 0; j < n; j++) {
+            s[j] = costs[j] - s[j];
+        }
+        double shiftX = Math.max(-1.5 * min(x), 0);
+        double shiftS = Math.max(-1.5 * min(s), 0);
+        double sumX = 0;
+        double sumS = 0;
+        double product = 0;
+        for (int j = 0; j < n; j++) {
+            x[j] += shiftX;
+            s[j] += shiftS;
+            sumX += x[j];
+            sumS += s[j];
+        }
+        for (int j = 0; j < n; j++) {
+            product += x[j] * s[j];
+        }
+        double correctionX = sumS > 0 ? 0.5 * product / sumS : 0;
+        double correctionS = sumX > 0 ? 0.5 * product / sumX : 0;
+        for (int j = 0; j < n; j++) {
+            // keep the point strictly interior even for the degenerate starting data
+            x[j] = Math.max(x[j] + correctionX, 1e-4);
+            s[j] = Math.max(s[j] + correctionS, 1e-4);
+        }
+    }
+
+    /**
+     * Performs one predictor-corrector iteration.
+     * @return true if the current point is optimal (with respect to accuracy), or the method stalled
+     * and the best point is restored, false otherwise
+     * @throws ConvergenceException        if the method stalled far from the optimum
+     * @throws ApplicationProblemException if the problem is detected to be infeasible or unbounded
+     * @throws DimensionsException if dimensions of the problem are inconsistent
+     */
+    protected boolean iteration() throws ApplicationProblemException, DimensionsException {
+        int n = costs.length;
+        int m = rightHandSide.length;
+
+        // residuals: r_b = A x - b, r_c = A^T y + s - c
+        double[] primalResidual = multiply(x);
+        for (int i = 0; i < m; i++) {
+            primalResidual[i] -= rightHandSide[i];
+        }
+        double[] dualResidual = multiplyTransposed(y);
+        for (int j = 0; j < n; j++) {
+            dualResidual[j] += s[j] - costs[j];
+        }
+        double primalValue = dot(costs, x);
+        double dualValue = dot(rightHandSide, y);
+        double error = Math.max(norm(primalResidual) / (1 + norm(rightHandSide)),
+                Math.max(norm(dualResidual) / (1 + norm(costs)),
+                        Math.abs(primalValue - dualValue) / (1 + Math.abs(primalValue))));
+        if (error <= accuracy) {
+            return true;
+        }
+        if (norm(x) > DIVERGENCE_LIMIT || norm(y) > DIVERGENCE_LIMIT) {
+            // iterates may also run away after the stagnation near the optimum
+            return restoreBest(new ApplicationProblemException("The problem is infeasible or unbounded"));
+        }
+        if (error < bestError) {
+            bestError = error;
+            bestX = x.clone();
+            bestY = y.clone();
+            bestS = s.clone();
+            stallingIterations = 0;
+        } else {
+            stallingIterations++;
+        }
+
+        double mu = dot(x, s) / n;
+        // complementarity below the rounding errors of the objective cannot improve the point any more,
+        // residuals are not monotone far from the optimum, so the lack of progress counts only near it
+        boolean isStalled = stallingIterations >= STALLING_ITERATIONS && bestError <= Math.sqrt(accuracy);
+        if (isStalled || mu <= Math.ulp(1 + Math.abs(primalValue))) {
+            return restoreBest(null);
+        }
+        double[] weights = new double[n];
+        for (int j = 0; j < n; j++) {
+            weights[j] = Math.min(Math.max(x[j] / s[j], 1 / WEIGHT_LIMIT), WEIGHT_LIMIT);
+        }
+        try {
+            factorize(weights);
+        } catch (ApplicationProblemException e) {
+            return restoreBest(e);
+        }
+
+        // predictor (affine scaling) direction: complementarity target is zero
+        double[] complementarity = new double[n];
+        for (int j = 0; j < n; j++) {
+            complementarity[j] = -x[j] * s[j];
+        }
+        double[][] affine = direction(weights, primalResidual, dualResidual, complementarity);
+        double affinePrimalStep = Math.min(1, stepToBoundary(x, affine[0]));
+        double affineDualStep = Math.min(1, stepToBoundary(s, affine[2]));
+        double affineMu = 0;
+        for (int j = 0; j < n; j++) {
+            affineMu += (x[j] + affinePrimalStep * affine[0][j]) * (s[j] + affineDualStep * affine[2][j]);
+        }
+        affineMu /= n;
+        double sigma = Math.pow(affineMu / mu, 3);
+
+        // corrector: centering towards sigma*mu and second order term of the predictor
+        for (int j = 0; j < n; j++) {
+            complementarity[j] = -x[j] * s[j] - affine[0][j] * affine[2][j] + sigma * mu;
+        }
+        double[][] step = direction(weights, primalResidual, dualResidual, complementarity);
+        double primalStep = Math.min(1, STEP_FACTOR * stepToBoundary(x, step[0]));
+        double dualStep = Math.min(1, STEP_FACTOR * stepToBoundary(s, step[2]));
+        for (int j = 0; j < n; j++) {
+            x[j] += primalStep * step[0][j];
+            s[j] += dualStep * step[2][j];
+        }
+        for (int i = 0; i < m; i++) {
+            y[i] += dualStep * step[1][i];
+        }
+        return false;
+    }
+
+    // Stops the stalled or diverging method at the best point, if it is within the relaxed tolerance sqrt(accuracy),
+    // otherwise throws the cause (or the convergence failure, if there is none)
+    private boolean restoreBest(ApplicationProblemException cause) throws ApplicationProblemException {
+        if (bestError <= Math.sqrt(accuracy)) {
+            x = bestX;
+            y = bestY;
+            s = bestS;
+            return true;
+        }
+        if (cause != null) {
+            throw cause;
+        }
+        throw new ConvergenceException("Interior point method stalled with relative infeasibility or gap "
+                + bestError);
+    }
+
+    // Solves the Newton system with the current factorization, returns {dx, dy, ds}
+    private double[][] direction(double[] weights, double[] primalResidual, double[] dualResidual,
+                                 double[] complementarity) throws DimensionsException {
+        int n = costs.length;
+        // dx = S^-1 r_xs + D (r_c + A^T dy), A D A^T dy = -r_b - A (S^-1 r_xs + D r_c)
+        double[] base = new double[n];
+        for (int j = 0; j < n; j++) {
+            base[j] = complementarity[j] / s[j] + weights[j] * dualResidual[j];
+        }
+        double[] dy = multiply(base);
+        for (int i = 0; i < dy.length; i++) {
+            dy[i] = -primalResidual[i] - dy[i];
+        }
+        normalEquations.solve(dy);
+        double[] ds = multiplyTransposed(dy);
+        double[] dx = new double[n];
+        for (int j = 0; j < n; j++) {
+            ds[j] = -dualResidual[j] - ds[j];
+            dx[j] = (complementarity[j] - x[j] * ds[j]) / s[j];
+        }
+        return new double[][]{dx, dy, ds};
+    }
+
+    // Factorizes normal equations, regularizing them if the matrix is numerically singular
+    private void factorize(double[] weights) throws DimensionsException, ApplicationProblemException {
+        Vector diagonal = asVector(weights);
+        double regularization = 0;
+        while (true) {
+            try {
+                normalEquations.factorize(diagonal, regularization);
+                return;
+            } catch (SingularityException e) {
+                if (regularization >= 1e-2) {
+                    throw new ApplicationProblemException("Normal equations are singular");
+                }
+                regularization = regularization == 0 ? 1e-12 : regularization * 100;
+            }
+        }
+    }
+
+    // Largest step in [0, 1 / STEP_FACTOR] along direction which keeps the point non negative
+    private static double stepToBoundary(double[] point, double[] direction) {
+        double step = 1 / STEP_FACTOR;
+        for (int j = 0; j < point.length; j++) {
+            if (direction[j] < 0) {
+                step = Math.min(step, -point[j] / direction[j]);
+            }
+        }
+        return step;
+    }
+
+    private double[] multiply(double[] vector) throws DimensionsException {
+        return toArray(constrains.multiply(asVector(vector)));
+    }
+
+    private double[] multiplyTransposed(double[] vector) throws DimensionsException {
+        return toArray(constrains.multiplyTransposed(asVector(vector)));
+    }
+
+    private static Vector asVector(double[] items) {
+        return new ColumnVector(new Matrix(items.length, 1, items), 0);
+    }
+
+    private static double[] toArray(Vector vector) {
+        double[] result = new double[vector.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = vector.get(i);
+        }
+        return result;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double result = 0;
+        for (int i = 0; i < a.length; i++) {
+            result += a[i] * b[i];
+        }
+        return result;
+    }
+
+    private static double norm(double[] a) {
+        return Math.sqrt(dot(a, a));
+    }
+
+    private static double min(double[] a) {
+        double result = Double.POSITIVE_INFINITY;
+        for (double item : a) {
+            result = Math.min(result, item);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,393 @@
+import Exceptions.DimensionsException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming reader of the problems in the text format of {@link Matrix#scan}, {@link RowVector#scan}
+ * and {@link ColumnVector#scan}: items are separated by spaces (or tabs), each line is a row,
+ * empty line is the end of a matrix or column vector.
+ * Input is read through a reusable byte buffer, numbers are parsed by a hand-rolled tokenizer
+ * and written straight into the storage of the resulting matrix, no String per line or item is created
+ */
+public class ProblemReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** exactly representable powers of ten, used by the fast path of the number parsing */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    /** mantissas up to 2^53 are exact doubles */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    /** bytes of the current token, reused between tokens */
+    private byte[] token = new byte[64];
+    private boolean isEnded;
+
+    /**
+     * Reader over the stream (e.g. System.in)
+     *
+     * @param stream input stream
+     */
+    public ProblemReader(InputStream stream) {
+        this(Channels.newChannel(stream));
+    }
+
+    /**
+     * Reader over the file
+     *
+     * @param file path to the file
+     * @throws IOException if file cannot be opened
+     */
+    public ProblemReader(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    private ProblemReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.limit(0);
+    }
+
+    /**
+     * Read the rest of the current line as text
+     *
+     * @return line without line separator
+     * @throws IOException            if input cannot be read
+     * @throws NoSuchElementException if input is ended
+     */
+    public String readLine() throws IOException {
+        int c = peek();
+        if (c < 0) {
+            throw new NoSuchElementException("No line found");
+        }
+        int length = 0;
+        while ((c = read()) >= 0 && c != '\n') {
+            if (c != '\r') {
+                token = ensureCapacity(token, length + 1);
+                token[length++] = (byte) c;
+            }
+        }
+        return new String(token, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a matrix: rows until empty line (or end of input)
+     *
+     * @return matrix from input
+     * @throws IOException            if input cannot be read
+     * @throws NumberFormatException  if some item is not a number
+     * @throws NoSuchElementException if input is ended before the matrix
+     * @throws DimensionsException    if rows consist from not equal amount of elements
+     */
+    public Matrix readMatrix() throws IOException, DimensionsException {
+        double[] items = new double[256];
+        int size = 0;
+        int columns = -1;
+        int rows = 0;
+        requireInput();
+        while (!isLineEmpty()) {
+            int rowStart = size;
+            while (skipSpaces()) {
+                items = ensureCapacity(items, size + 1);
+                items[size++] = readNumber();
+            }
+            skipLineBreak();
+            int rowSize = size - rowStart;
+            if (columns == -1) {
+                columns = rowSize;
+            } else if (rowSize != columns) {
+                throw new DimensionsException("All rows of matrix should have same dimension");
+            }
+            rows++;
+        }
+        skipLineBreak();
+        return new Matrix(rows, Math.max(columns, 0), size == items.length ? items : Arrays.copyOf(items, size));
+    }
+
+    /**
+     * Read a matrix of known dimensions directly into its storage
+     *
+     * @param rows    expected amount of rows
+     * @param columns expected amount of columns
+     * @return matrix from input
+     * @throws IOException            if input cannot be read
+     * @throws NumberFormatException  if some item is not a number
+     * @throws NoSuchElementException if input is ended before the matrix
+     * @throws DimensionsException    if input does not match the dimensions or they exceed 2^31 items
+     */
+    public Matrix readMatrix(int rows, int columns) throws IOException, DimensionsException {
+        long size = (long) rows * columns;
+        if (rows < 0 || columns < 0 || size > Integer.MAX_VALUE) {
+            throw new DimensionsException("Matrix " + rows + "x" + columns + " cannot be stored in the dense storage");
+        }
+        double[] items = new double[(int) size];
+        requireInput();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (!skipSpaces()) {
+                    throw new DimensionsException("Row " + i + " has less than " + columns + " items");
+                }
+                items[i * columns + j] = readNumber();
+            }
+            if (skipSpaces()) {
+                throw new DimensionsException("Row " + i + " has more than " + columns + " items");
+            }
+            skipLineBreak();
+        }
+        if (!isLineEmpty()) {
+            throw new DimensionsException("Matrix has more than " + rows + " rows");
+        }
+        skipLineBreak();
+        return new Matrix(rows, columns, items);
+    }
+
+    /**
+     * Read a matrix (rows until empty line or end of input), storing only its non zero items
+     *
+     * @return sparse matrix from input
+     * @throws IOException            if input cannot be read
+     * @throws NumberFormatException  if some item is not a number
+     * @throws NoSuchElementException if input is ended before the matrix
+     * @throws DimensionsException    if rows consist from not equal amount of elements
+     */
+    public SparseMatrix readSparseMatrix() throws IOException, DimensionsException {
+        int[] rowIndex = new int[256];
+        int[] columnIndex = new int[256];
+        double[] values = new double[256];
+        int size = 0;
+        int columns = -1;
+        int rows = 0;
+        requireInput();
+        while (!isLineEmpty()) {
+            int column = 0;
+            while (skipSpaces()) {
+                double value = readNumber();
+                if (value != 0) {
+                    rowIndex = ensureCapacity(rowIndex, size + 1);
+                    columnIndex = ensureCapacity(columnIndex, size + 1);
+                    values = ensureCapacity(values, size + 1);
+                    rowIndex[size] = rows;
+                    columnIndex[size] = column;
+                    values[size++] = value;
+                }
+                column++;
+            }
+            skipLineBreak();
+            if (columns == -1) {
+                columns = column;
+            } else if (column != columns) {
+                throw new DimensionsException("All rows of matrix should have same dimension");
+            }
+            rows++;
+        }
+        skipLineBreak();
+        return new SparseMatrix(rows, Math.max(columns, 0),
+                Arrays.copyOf(rowIndex, size), Arrays.copyOf(columnIndex, size), Arrays.copyOf(values, size));
+    }
+
+    /**
+     * Read a row vector: items of one line
+     *
+     * @return vector from input
+     * @throws IOException            if input cannot be read
+     * @throws NumberFormatException  if some item is not a number
+     * @throws NoSuchElementException if input is ended
+     */
+    public RowVector readRowVector() throws IOException {
+        double[] items = new double[16];
+        int size = 0;
+        requireInput();
+        while (skipSpaces()) {
+            items = ensureCapacity(items, size + 1);
+            items[size++] = readNumber();
+        }
+        skipLineBreak();
+        return new RowVector(new Matrix(1, size, Arrays.copyOf(items, size)), 0);
+    }
+
+    /**
+     * Read a column vector: one item per line until empty line (or end of input)
+     *
+     * @return vector from input
+     * @throws IOException            if input cannot be read
+     * @throws NumberFormatException  if some line is not a single number
+     * @throws NoSuchElementException if input is ended before the vector
+     */
+    public ColumnVector readColumnVector() throws IOException {
+        double[] items = new double[16];
+        int size = 0;
+        requireInput();
+        while (!isLineEmpty()) {
+            skipSpaces();
+            items = ensureCapacity(items, size + 1);
+            items[size++] = readNumber();
+            if (skipSpaces()) {
+                throw new NumberFormatException("Each line of column vector should consist from one number");
+            }
+            skipLineBreak();
+        }
+        skipLineBreak();
+        return new ColumnVector(new Matrix(size, 1, Arrays.copyOf(items, size)), 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Skips spaces of the current line, returns whether some item follows on this line
+    private boolean skipSpaces() throws IOException {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t' || c == '\r') {
+            read();
+        }
+        return c >= 0 && c != '\n';
+    }
+
+    // Whether the current line contains only spaces (or input is ended), does not consume the line break
+    private boolean isLineEmpty() throws IOException {
+        return !skipSpaces();
+    }
+
+    private void skipLineBreak() throws IOException {
+        if (peek() == '\n') {
+            read();
+        }
+    }
+
+    private void requireInput() throws IOException {
+        if (peek() < 0) {
+            throw new NoSuchElementException("Input is ended");
+        }
+    }
+
+    // Parses the number starting at the current position
+    private double readNumber() throws IOException {
+        int length = 0;
+        int c;
+        while ((c = peek()) >= 0 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+            token = ensureCapacity(token, length + 1);
+            token[length++] = (byte) read();
+        }
+        return parseNumber(token, length);
+    }
+
+    /**
+     * Parses decimal number. Numbers with at most 2^53 mantissa and small decimal exponent are computed
+     * exactly by one multiplication or division (both operands are exact doubles), others fall back to Double.parseDouble
+     */
+    static double parseNumber(byte[] token, int length) {
+        int position = 0;
+        boolean isNegative = false;
+        if (position < length && (token[position] == '-' || token[position] == '+')) {
+            isNegative = token[position++] == '-';
+        }
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean isExact = true;
+        int start = position;
+        while (position < length && token[position] >= '0' && token[position] <= '9') {
+            if (mantissa < MAX_EXACT_MANTISSA / 10) {
+                mantissa = mantissa * 10 + (token[position] - '0');
+            } else {
+                isExact = false;
+            }
+            position++;
+            digits++;
+        }
+        if (position < length && token[position] == '.') {
+            position++;
+            while (position < length && token[position] >= '0' && token[position] <= '9') {
+                if (mantissa < MAX_EXACT_MANTISSA / 10) {
+                    mantissa = mantissa * 10 + (token[position] - '0');
+                    exponent--;
+                } else {
+                    isExact = false;
+                }
+                position++;
+                digits++;
+            }
+        }
+        if (digits > 0 && position < length && (token[position] == 'e' || token[position] == 'E')) {
+            position++;
+            boolean isExponentNegative = false;
+            if (position < length && (token[position] == '-' || token[position] == '+')) {
+                isExponentNegative = token[position++] == '-';
+            }
+            int explicit = 0;
+            int exponentStart = position;
+            while (position < length && token[position] >= '0' && token[position] <= '9') {
+                explicit = Math.min(explicit * 10 + (token[position++] - '0'), 100_000);
+            }
+            if (position == exponentStart) {
+                digits = 0;
+            }
+            exponent += isExponentNegative ? -explicit : explicit;
+        }
+        if (digits == 0 || position != length || position == start) {
+            // not a plain decimal (NaN, Infinity, hex, malformed) - leave it to the standard parser
+            return Double.parseDouble(new String(token, 0, length, StandardCharsets.US_ASCII));
+        }
+        if (isExact && exponent >= -22 && exponent <= 22) {
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            return isNegative ? -value : value;
+        }
+        return Double.parseDouble(new String(token, 0, length, StandardCharsets.US_ASCII));
+    }
+
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    private int read() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        if (isEnded) {
+            return false;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        if (read < 0) {
+            isEnded = true;
+            return false;
+        }
+        return true;
+    }
+
+    private static byte[] ensureCapacity(byte[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    private static int[] ensureCapacity(int[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    private static double[] ensureCapacity(double[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+}
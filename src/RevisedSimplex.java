@@ -0,0 +1,314 @@
+import Exceptions.ApplicationProblemException;
+import Exceptions.DimensionsException;
+import Exceptions.SingularityException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Revised simplex method for the problem "max/min c*x, A*x <= b, x >= 0".
+ * Instead of pivoting the whole tableau it keeps LU factorization of the current basis
+ * (refreshed each {@link #refactorizationPeriod} pivots, eta file in between)
+ * and computes only reduced costs and the single entering column on each iteration.
+ * {@link SimplexMatrix} stays as the reference (full-tableau) implementation
+ */
+public class RevisedSimplex {
+    /** Default amount of pivots between two refactorizations of the basis */
+    public static final int DEFAULT_REFACTORIZATION_PERIOD = 50;
+
+    /** Constraints matrix A (without slack variables), dense or sparse */
+    MatrixOperator constrains;
+    /** Right hand side of constraints b */
+    double[] rightHandSide;
+    /** Costs of all variables (including slack ones), multiplied by the mode factor (problem is minimized) */
+    double[] costs;
+    /** Optimization mode for a problem */
+    OptimizationMode mode;
+    DoublePreciseComparator cmp;
+    /** basis[i] - index of variable, which is basic in the i-th row */
+    int[] basis;
+    /** values of the basic variables */
+    double[] basicValues;
+    /** amount of pivots between two refactorizations */
+    int refactorizationPeriod = DEFAULT_REFACTORIZATION_PERIOD;
+
+    /** LU factorization of the basis at the moment of the last refactorization */
+    private LUDecomposition factorization;
+    /** eta file: pivot rows of the updates applied after the last refactorization */
+    private final List<Integer> etaRows = new ArrayList<>();
+    /** eta file: entering columns (in terms of the previous basis) of the updates */
+    private final List<double[]> etaColumns = new ArrayList<>();
+    /** isBasic[j] - whether j-th variable is in the basis */
+    private final boolean[] isBasic;
+
+    /**
+     * Construct the revised simplex solver
+     * @param objectiveFunction Coefficients vector of linear function in R^(objectiveFunction.size())
+     * @param constrains matrix of constrains over objectiveFunction variables
+     *                   (constrain - inequality in form "x_1 + ... + x_n <= u_j")
+     * @param rightHandSide vector of constrains right hand sides (u_1, u_2 ... u_m)
+     * @param accuracy accuracy for double comparison
+     * @param mode either solution for the maximization or for the minimization problem
+     * @throws ApplicationProblemException When simplex method is not applicable for the problem
+     */
+    public RevisedSimplex(Vector objectiveFunction,
+                          MatrixOperator constrains,
+                          Vector rightHandSide,
+                          double accuracy,
+                          OptimizationMode mode) throws ApplicationProblemException {
+        if (!rightHandSide.all(item -> item >= 0)) {
+            throw new ApplicationProblemException("Right hand side must be non negative for simplex method application");
+        }
+        int n = constrains.getColumns();
+        int m = constrains.getRows();
+        this.constrains = constrains;
+        this.mode = mode;
+        cmp = new DoublePreciseComparator(accuracy);
+        this.rightHandSide = new double[m];
+        for (int i = 0; i < m; i++) {
+            this.rightHandSide[i] = rightHandSide.get(i);
+        }
+        costs = new double[n + m];
+        for (int j = 0; j < objectiveFunction.size(); j++) {
+            costs[j] = objectiveFunction.get(j) * mode.factor;
+        }
+        basis = new int[m];
+        isBasic = new boolean[n + m];
+        for (int i = 0; i < m; i++) {
+            basis[i] = n + i;
+            isBasic[n + i] = true;
+        }
+        try {
+            refactorize();
+        } catch (SingularityException e) {
+            // slack basis is the identity matrix
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Construct the revised simplex solver for the maximization problem
+     * @param objectiveFunction Coefficients vector of linear function in R^(objectiveFunction.size())
+     * @param constrains matrix of constrains over objectiveFunction variables
+     * @param rightHandSide vector of constrains right hand sides (u_1, u_2 ... u_m)
+     * @param accuracy accuracy for double comparison
+     * @throws ApplicationProblemException When simplex method is not applicable for the problem
+     */
+    public RevisedSimplex(Vector objectiveFunction, MatrixOperator constrains, Vector rightHandSide, double accuracy) throws ApplicationProblemException {
+        this(objectiveFunction, constrains, rightHandSide, accuracy, OptimizationMode.MAX);
+    }
+
+    /**
+     * Construct the revised simplex solver for the maximization problem with absolute accuracy.
+     * @param objectiveFunction Coefficients vector of linear function in R^(objectiveFunction.size())
+     * @param constrains matrix of constrains over objectiveFunction variables
+     * @param rightHandSide vector of constrains right hand sides (u_1, u_2 ... u_m)
+     * @throws ApplicationProblemException When simplex method is not applicable for the problem
+     */
+    public RevisedSimplex(Vector objectiveFunction, MatrixOperator constrains, Vector rightHandSide) throws ApplicationProblemException {
+        this(objectiveFunction, constrains, rightHandSide, 0, OptimizationMode.MAX);
+    }
+
+    /**
+     * Construct the revised simplex solver with absolute accuracy.
+     * @param objectiveFunction Coefficients vector of linear function in R^(objectiveFunction.size())
+     * @param constrains matrix of constrains over objectiveFunction variables
+     * @param rightHandSide vector of constrains right hand sides (u_1, u_2 ... u_m)
+     * @param mode either solution for the maximization or for the minimization problem
+     * @throws ApplicationProblemException When simplex method is not applicable for the problem
+     */
+    public RevisedSimplex(Vector objectiveFunction, MatrixOperator constrains, Vector rightHandSide, OptimizationMode mode) throws ApplicationProblemException {
+        this(objectiveFunction, constrains, rightHandSide, 0, mode);
+    }
+
+    /**
+     * Set amount of pivots, after which the basis is factorized from scratch
+     * @param period positive amount of pivots
+     */
+    public void setRefactorizationPeriod(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Refactorization period must be positive");
+        }
+        refactorizationPeriod = period;
+    }
+
+    /**
+     * Performs the iterative solution of the revised simplex algorithm.
+     * @throws ApplicationProblemException if unbounded solution was identified (function have unbounded max/min value)
+     */
+    public void solve() throws ApplicationProblemException {
+        while (!iteration()) {
+            continue;
+        }
+    }
+
+    /**
+     * Performs one iteration of the revised simplex algorithm.
+     * @return true if the optimal solution is found, false otherwise.
+     * @throws ApplicationProblemException if unbounded solution was identified (function have unbounded max/min value)
+     */
+    protected boolean iteration() throws ApplicationProblemException {
+        int m = basis.length;
+        int n = constrains.getColumns();
+
+        // simplex multipliers: y^T B = c_B^T
+        double[] multipliers = new double[m];
+        for (int i = 0; i < m; i++) {
+            multipliers[i] = costs[basis[i]];
+        }
+        btran(multipliers);
+
+        // pricing (Dantzig rule): the most negative reduced cost, d_j = c_j - (A^T y)_j
+        Vector prices;
+        try {
+            prices = constrains.multiplyTransposed(new RowVector(new Matrix(1, m, multipliers), 0));
+        } catch (DimensionsException e) {
+            throw new RuntimeException(e);
+        }
+        int enters = -1;
+        double bestReducedCost = 0;
+        for (int j = 0; j < n + m; j++) {
+            if (isBasic[j]) {
+                continue;
+            }
+            double reducedCost = costs[j] - (j < n ? prices.get(j) : multipliers[j - n]);
+            if (cmp.compare(reducedCost, 0d) < 0 && reducedCost < bestReducedCost) {
+                bestReducedCost = reducedCost;
+                enters = j;
+            }
+        }
+        if (enters == -1) {
+            return true;
+        }
+
+        // entering column in terms of the current basis: B d = A_q
+        double[] direction = column(enters);
+        ftran(direction);
+
+        // ratio test
+        int leaves = -1;
+        double minRatio = 0;
+        for (int i = 0; i < m; i++) {
+            if (cmp.compare(direction[i], 0d) <= 0) {
+                continue;
+            }
+            double ratio = basicValues[i] / direction[i];
+            if (leaves == -1 || ratio < minRatio) {
+                minRatio = ratio;
+                leaves = i;
+            }
+        }
+        if (leaves == -1) {
+            throw new ApplicationProblemException("Unbounded solution");
+        }
+
+        for (int i = 0; i < m; i++) {
+            basicValues[i] -= minRatio * direction[i];
+        }
+        basicValues[leaves] = minRatio;
+        isBasic[basis[leaves]] = false;
+        isBasic[enters] = true;
+        basis[leaves] = enters;
+
+        etaRows.add(leaves);
+        etaColumns.add(direction);
+        if (etaRows.size() >= refactorizationPeriod) {
+            try {
+                refactorize();
+            } catch (SingularityException e) {
+                throw new ApplicationProblemException("Basis became numerically singular");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * State of the solution
+     * @return values of all variables (including the slack ones) on current iteration
+     */
+    public Vector getObjectiveFunction() {
+        Vector result = new RowVector(costs.length);
+        for (int i = 0; i < basis.length; i++) {
+            result.set(basis[i], basicValues[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Value of the function
+     * @return the value of the objective function on current iteration
+     */
+    public double getObjectiveFunctionValue() {
+        double value = 0;
+        for (int i = 0; i < basis.length; i++) {
+            value += costs[basis[i]] * basicValues[i];
+        }
+        return value * mode.factor;
+    }
+
+    // Factorizes the current basis from scratch and recomputes values of the basic variables
+    private void refactorize() throws SingularityException {
+        int m = basis.length;
+        double[] basisMatrix = new double[m * m];
+        for (int k = 0; k < m; k++) {
+            double[] column = column(basis[k]);
+            for (int i = 0; i < m; i++) {
+                basisMatrix[i * m + k] = column[i];
+            }
+        }
+        factorization = new LUDecomposition(basisMatrix, m, 0);
+        etaRows.clear();
+        etaColumns.clear();
+        basicValues = rightHandSide.clone();
+        factorization.solve(basicValues);
+    }
+
+    // Dense column of the variable in the constraints matrix augmented by slack identity
+    private double[] column(int variable) {
+        int m = basis.length;
+        int n = constrains.getColumns();
+        double[] result = new double[m];
+        if (variable < n) {
+            Vector column = constrains.getColumn(variable);
+            for (int i = 0; i < m; i++) {
+                result[i] = column.get(i);
+            }
+        } else {
+            result[variable - n] = 1;
+        }
+        return result;
+    }
+
+    // Solves B x = a in place (forward transformation)
+    private void ftran(double[] a) {
+        factorization.solve(a);
+        for (int k = 0; k < etaRows.size(); k++) {
+            int row = etaRows.get(k);
+            double[] eta = etaColumns.get(k);
+            double pivot = a[row] / eta[row];
+            if (pivot == 0) {
+                continue;
+            }
+            for (int i = 0; i < a.length; i++) {
+                a[i] -= eta[i] * pivot;
+            }
+            a[row] = pivot;
+        }
+    }
+
+    // Solves y^T B = c^T in place (backward transformation)
+    private void btran(double[] c) {
+        for (int k = etaRows.size() - 1; k >= 0; k--) {
+            int row = etaRows.get(k);
+            double[] eta = etaColumns.get(k);
+            double sum = c[row];
+            for (int i = 0; i < c.length; i++) {
+                if (i != row) {
+                    sum -= c[i] * eta[i];
+                }
+            }
+            c[row] = sum / eta[row];
+        }
+        factorization.solveTransposed(c);
+    }
+}
@@ -0,0 +1,112 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Execution mode for the independent row updates (elimination sweeps, simplex pivots).
+ * Rows are split across the fork/join pool only when the amount of updated items reaches the threshold,
+ * otherwise they are processed on the caller thread. Each row is computed by the same operations
+ * in both modes, so results are bit-identical to the sequential execution
+ */
+public class RowParallelism {
+    /** Everything is done on the caller thread */
+    public static final RowParallelism SEQUENTIAL = new RowParallelism(null, Integer.MAX_VALUE);
+
+    /** Update of a single row */
+    @FunctionalInterface
+    public interface RowUpdate {
+        /**
+         * Update the row
+         *
+         * @param row index of the row
+         */
+        void apply(int row);
+    }
+
+    /** pool for the parallel execution, null for the sequential mode */
+    private final ForkJoinPool pool;
+    /** minimal amount of items (rows * row width) for the parallel execution */
+    private final long threshold;
+
+    /**
+     * Parallel mode over the given pool
+     *
+     * @param pool      pool, which executes the row updates
+     * @param threshold minimal amount of items (rows * row width), which are updated in parallel
+     */
+    public RowParallelism(ForkJoinPool pool, long threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Parallel mode over the common fork/join pool
+     *
+     * @param threshold minimal amount of items (rows * row width), which are updated in parallel
+     * @return parallel mode
+     */
+    public static RowParallelism common(long threshold) {
+        return new RowParallelism(ForkJoinPool.commonPool(), threshold);
+    }
+
+    /**
+     * Whether the mode can ever run updates in parallel
+     *
+     * @return false for the sequential mode
+     */
+    public boolean isParallel() {
+        return pool != null && pool.getParallelism() > 1;
+    }
+
+    /**
+     * Apply the update to all rows in [from, to). Returns when all rows are updated
+     *
+     * @param from     first row
+     * @param to       row after the last one
+     * @param rowWidth amount of items in one row, used to estimate the work
+     * @param update   independent update of a single row
+     */
+    public void forEachRow(int from, int to, int rowWidth, RowUpdate update) {
+        if (!isParallel() || (long) (to - from) * rowWidth < threshold) {
+            for (int row = from; row < to; row++) {
+                update.apply(row);
+            }
+            return;
+        }
+        // about 4 chunks per worker to balance the load
+        int parts = pool.getParallelism() * 4;
+        int chunk = Math.max(1, (to - from + parts - 1) / parts);
+        pool.invoke(new RowRange(from, to, chunk, update));
+    }
+
+    private static class RowRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int chunk;
+        // tasks are never serialized, the update is a lambda over the live matrix
+        private final transient RowUpdate update;
+
+        RowRange(int from, int to, int chunk, RowUpdate update) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.update = update;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                for (int row = from; row < to; row++) {
+                    update.apply(row);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RowRange(from, middle, chunk, update), new RowRange(middle, to, chunk, update));
+        }
+    }
+}
@@ -1,7 +1,7 @@
 import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
-import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
 
 /**
  * Represents a row vector, used for storing and manipulating row data
@@ -15,6 +15,11 @@ public class RowVector implements Vector {
      * index of the row within the matrix
      */
     private final int index;
+    /** dense view of the row in the storage of the matrix */
+    private final double[] items;
+    private final int offset;
+    private final int stride;
+    private final int size;
 
     /**
      * Constructor for referencing a row from a matrix.
@@ -26,6 +31,10 @@ public class RowVector implements Vector {
     public RowVector(Matrix matrix, int index) {
         this.matrix = matrix;
         this.index = index;
+        items = matrix.lineRepresentation;
+        offset = index * matrix.rowStride();
+        stride = matrix.columnStride();
+        size = matrix.getColumns();
     }
 
     /**
@@ -34,8 +43,7 @@ public class RowVector implements Vector {
      * @param n size of the vector
      */
     public RowVector(int n) {
-        matrix = new Matrix(1, n);
-        index = 0;
+        this(new Matrix(1, n), 0);
     }
 
     /**
@@ -75,17 +83,38 @@ public class RowVector implements Vector {
 
     @Override
     public double get(int columnIndex) throws IndexOutOfBoundsException {
-        return matrix.get(index, columnIndex);
+        if (columnIndex < 0 || columnIndex >= size) {
+            throw new IndexOutOfBoundsException("Index is not reachable");
+        }
+        return items[offset + columnIndex * stride];
     }
 
     @Override
     public void set(int columnIndex, double value) throws IndexOutOfBoundsException {
-        matrix.set(index, columnIndex, value);
+        if (columnIndex < 0 || columnIndex >= size) {
+            throw new IndexOutOfBoundsException("Index is not reachable");
+        }
+        items[offset + columnIndex * stride] = value;
     }
 
     @Override
     public int size() {
-        return matrix.getColumns();
+        return size;
+    }
+
+    @Override
+    public double[] array() {
+        return items;
+    }
+
+    @Override
+    public int offset() {
+        return offset;
+    }
+
+    @Override
+    public int stride() {
+        return stride;
     }
 
     @Override
@@ -99,7 +128,7 @@ public class RowVector implements Vector {
     }
 
     @Override
-    public Vector getMutated(Vector operand, BiFunction<Double, Double, Double> shader) {
+    public Vector getMutated(Vector operand, DoubleBinaryOperator shader) {
         Vector res = clone();
         res.mutateBy(operand, shader);
         return res;
@@ -0,0 +1,111 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of {@link VectorKernels} by the Vector API. Ranges are processed by the vectors
+ * of the preferred (widest) species of the processor, the tail shorter than a vector by the scalar loop.
+ * Lanewise operations are not fused, so axpy and scaling round exactly as the scalar code
+ */
+final class SimdKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private SimdKernels() {
+    }
+
+    // Vectors of one lane bring only the overhead
+    static boolean isProfitable() {
+        return SPECIES.length() > 1;
+    }
+
+    static double dot(double[] x, int xOffset, double[] y, int yOffset, int length) {
+        int bound = SPECIES.loopBound(length);
+        DoubleVector sum = DoubleVector.zero(SPECIES);
+        int k = 0;
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector a = DoubleVector.fromArray(SPECIES, x, xOffset + k);
+            DoubleVector b = DoubleVector.fromArray(SPECIES, y, yOffset + k);
+            sum = a.fma(b, sum);
+        }
+        double result = sum.reduceLanes(VectorOperators.ADD);
+        for (; k < length; k++) {
+            result += x[xOffset + k] * y[yOffset + k];
+        }
+        return result;
+    }
+
+    static void axpy(double factor, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        int bound = SPECIES.loopBound(length);
+        int k = 0;
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector a = DoubleVector.fromArray(SPECIES, x, xOffset + k);
+            DoubleVector b = DoubleVector.fromArray(SPECIES, y, yOffset + k);
+            b.add(a.mul(factor)).intoArray(y, yOffset + k);
+        }
+        for (; k < length; k++) {
+            y[yOffset + k] += factor * x[xOffset + k];
+        }
+    }
+
+    static void scale(double[] x, int offset, int length, double factor) {
+        int bound = SPECIES.loopBound(length);
+        int k = 0;
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, x, offset + k).mul(factor).intoArray(x, offset + k);
+        }
+        for (; k < length; k++) {
+            x[offset + k] *= factor;
+        }
+    }
+
+    static double maxAbs(double[] x, int offset, int length) {
+        int bound = SPECIES.loopBound(length);
+        DoubleVector max = DoubleVector.zero(SPECIES);
+        int k = 0;
+        for (; k < bound; k += SPECIES.length()) {
+            max = max.max(DoubleVector.fromArray(SPECIES, x, offset + k).abs());
+        }
+        double result = max.reduceLanes(VectorOperators.MAX);
+        for (; k < length; k++) {
+            result = Math.max(result, Math.abs(x[offset + k]));
+        }
+        return result;
+    }
+
+    static int argMin(double[] x, int offset, int length) {
+        if (length == 0) {
+            return -1;
+        }
+        // minimum is found by vectors, then the first item equal to it
+        int bound = SPECIES.loopBound(length);
+        DoubleVector min = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        int k = 0;
+        for (; k < bound; k += SPECIES.length()) {
+            min = min.min(DoubleVector.fromArray(SPECIES, x, offset + k));
+        }
+        double value = min.reduceLanes(VectorOperators.MIN);
+        for (; k < length; k++) {
+            value = Math.min(value, x[offset + k]);
+        }
+        for (k = 0; k < bound; k += SPECIES.length()) {
+            VectorMask<Double> equal = DoubleVector.fromArray(SPECIES, x, offset + k).eq(value);
+            if (equal.anyTrue()) {
+                return k + equal.firstTrue();
+            }
+        }
+        for (; k < length; k++) {
+            if (x[offset + k] == value) {
+                return k;
+            }
+        }
+        // NaN items are not ordered, the scalar loop resolves them as the plain comparison does
+        int result = 0;
+        for (k = 1; k < length; k++) {
+            if (x[offset + k] < x[offset + result]) {
+                result = k;
+            }
+        }
+        return result;
+    }
+}
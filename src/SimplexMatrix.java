@@ -1,23 +1,66 @@
 import Exceptions.ApplicationProblemException;
 import Exceptions.DimensionsException;
 
-import java.util.Comparator;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Scanner;
 
-/** Class representing a matrix used in the Simplex method for solving linear optimization problems */
+/**
+ * Class representing a matrix used in the Simplex method for solving linear optimization problems.
+ * The tableau [c 0 0; A I b] is always dense, including the identity block of the slack variables,
+ * whatever the storage of the constrains is: it takes (m + 1) * (n + m + 1) doubles, so e.g. 100k x 100k models
+ * do not fit (and the tableau is limited by 2^31 items at all). {@link RevisedSimplex} keeps sparse constrains
+ * in their own storage and does not build the tableau, its memory is dominated by the dense m x m basis factorization
+ */
 public class SimplexMatrix {
+    /** Amount of successive degenerate pivots, after which the solution falls back to Bland's rule */
+    public static final int STALLING_PIVOTS = 50;
+
     /** Matrix containing constraints, slack variables, and right-hand side */
     Matrix methodMatrix;
     /** Column vector for the right-hand side of constraints */
     Vector rightHandSide;
-    /** Row vector for the objective function of the optimization problem */
+    /** Row vector for the objective function of the optimization problem (reduced costs of all variables) */
     Vector objectiveFunction;
     /** Optimization mode for a problem */
     OptimizationMode mode;
 
-    Comparator<Double> cmp;
+    DoublePreciseComparator cmp;
     int[] basis;
+    /** rule of the entering variable choice */
+    private PricingRule pricing = new DantzigRule();
+    /** width of the range of each variable (upper minus lower bound), infinite for the variables without upper bound */
+    private final double[] range;
+    /** each variable is offset + (tableau variable), or offset - (tableau variable) if it is complemented:
+     * variables are shifted by their lower bounds and complemented, when they reach the upper ones */
+    private final double[] offset;
+    private final boolean[] isComplemented;
+    /** amount of the entering variables, which moved to the opposite bound without a pivot */
+    private int boundFlips;
+    /** instrumentation of the iterations, null if it is disabled */
+    private SolverMetrics metrics;
+    /** execution mode of the row updates in pivots */
+    private RowParallelism parallelism = Matrix.getParallelism();
+    /** costs of all variables (including the slack ones) multiplied by the mode factor, row 0 is rebuilt from them */
+    private final double[] costs;
+    /** amount of pivots done since construction */
+    private int pivots;
+    /** rule used while the solution stalls */
+    private final BlandRule bland = new BlandRule();
+    /** amount of successive pivots, which did not change the objective function value */
+    private int degeneratePivots;
+    /** amount of pivots chosen by Bland's rule */
+    private int antiCyclingPivots;
+    /** budgets of one {@link #solve()} call */
+    private int maxIterations = Integer.MAX_VALUE;
+    private long timeLimit = Long.MAX_VALUE;
+    /** constrain of each tableau row (row i + 1) and the sign it was multiplied by to get "<=" form */
+    private final int[] rowConstrain;
+    private final int[] rowSign;
+    /** amount of the original constrains */
+    private final int constrainsAmount;
 
     /**
      * Construct the simplex matrix
@@ -32,22 +75,111 @@ public class SimplexMatrix {
      *                                     (have unbounded max/min value)
      */
     public SimplexMatrix(Vector objectiveFunction,
-                         Matrix constrains,
+                         MatrixOperator constrains,
                          Vector rightHandSide,
                          double accuracy,
                          OptimizationMode mode) throws ApplicationProblemException {
-        if (!rightHandSide.all(item -> item >= 0)) {
-            throw new ApplicationProblemException("Right hand side must be non negative for simplex method application");
+        this(objectiveFunction, constrains, null, rightHandSide, accuracy, mode, null);
+    }
+
+    /**
+     * Construct the simplex matrix for constrains of any type. Right hand sides may be negative:
+     * starting basis of slack variables is then infeasible and {@link #solve()} restores feasibility by dual simplex
+     * @param objectiveFunction Coefficients vector of linear function in R^(objectiveFunction.size())
+     * @param constrains matrix of constrains over objectiveFunction variables
+     * @param types relation of each constrain ("<=", ">=" or "=") to its right hand side
+     * @param rightHandSide vector of constrains right hand sides (u_1, u_2 ... u_m)
+     * @param accuracy accuracy for double comparison
+     * @param mode either solution for the maximization or for the minimization problem
+     * @throws ApplicationProblemException When amount of types differs from amount of constrains
+     */
+    public SimplexMatrix(Vector objectiveFunction,
+                         MatrixOperator constrains,
+                         ConstraintType[] types,
+                         Vector rightHandSide,
+                         double accuracy,
+                         OptimizationMode mode) throws ApplicationProblemException {
+        this(objectiveFunction, constrains, types, rightHandSide, accuracy, mode, null);
+    }
+
+    /**
+     * Construct the simplex matrix with the tableau placed in the storage of the workspace
+     * (the workspace must not be used by other solver until this one is dropped)
+     * @param types relation of each constrain to its right hand side, null if all of them are "<="
+     * @param workspace reusable scratch buffers, null to allocate the tableau
+     * @see #SimplexMatrix(Vector, MatrixOperator, ConstraintType[], Vector, double, OptimizationMode)
+     */
+    SimplexMatrix(Vector objectiveFunction,
+                  MatrixOperator constrains,
+                  ConstraintType[] types,
+                  Vector rightHandSide,
+                  double accuracy,
+                  OptimizationMode mode,
+                  SolverWorkspace workspace) throws ApplicationProblemException {
+        constrainsAmount = constrains.getRows();
+        if (types != null && types.length != constrainsAmount) {
+            throw new ApplicationProblemException("Type must be given for each of " + constrainsAmount + " constrains");
+        }
+        // ">=" rows are negated, "=" ones are split into "<=" row and negated copy appended after all constrains
+        int equalities = 0;
+        if (types != null) {
+            for (ConstraintType type : types) {
+                if (type == ConstraintType.EQUAL) {
+                    equalities++;
+                }
+            }
+        }
+        // tableau [c*factor 0 0; A I b] is filled in place, without intermediate identity and combined copies
+        int rows = constrainsAmount + equalities;
+        int columns = constrains.getColumns();
+        if ((long) (rows + 1) * (columns + rows + 1) > Integer.MAX_VALUE) {
+            throw new ApplicationProblemException("Dense tableau " + (rows + 1) + "x" + (columns + rows + 1)
+                    + " exceeds 2^31 items of the dense storage");
+        }
+        methodMatrix = workspace == null
+                ? new Matrix(rows + 1, columns + rows + 1)
+                : workspace.matrix(rows + 1, columns + rows + 1);
+        try {
+            constrains.copyTo(methodMatrix, 1, 0);
+        } catch (DimensionsException e) {
+            throw new RuntimeException(e);
+        }
+        rowConstrain = new int[rows];
+        rowSign = new int[rows];
+        for (int i = 0, copy = constrainsAmount; i < constrainsAmount; i++) {
+            ConstraintType type = types == null ? ConstraintType.LESS_OR_EQUAL : types[i];
+            rowConstrain[i] = i;
+            rowSign[i] = type == ConstraintType.GREATER_OR_EQUAL ? -1 : 1;
+            if (type == ConstraintType.GREATER_OR_EQUAL) {
+                methodMatrix.get(i + 1).scaleBy(-1);
+            } else if (type == ConstraintType.EQUAL) {
+                rowConstrain[copy] = i;
+                rowSign[copy] = -1;
+                for (int j = 0; j < columns; j++) {
+                    methodMatrix.set(copy + 1, j, -methodMatrix.get(i + 1, j));
+                }
+                copy++;
+            }
+        }
+        costs = new double[columns + rows];
+        for (int j = 0; j < objectiveFunction.size(); j++) {
+            costs[j] = objectiveFunction.get(j) * mode.factor;
+            methodMatrix.set(0, j, costs[j]);
+        }
+        for (int i = 0; i < rows; i++) {
+            methodMatrix.set(i + 1, columns + i, 1);
+            methodMatrix.set(i + 1, columns + rows, rowSign[i] * rightHandSide.get(rowConstrain[i]));
         }
-        methodMatrix = constrains
-                .combineRight(Matrix.Identity(constrains.getRows()))
-                .combineRight(rightHandSide)
-                .combineTop(objectiveFunction.multiply(mode.factor));
         this.rightHandSide = new ColumnVector(methodMatrix, methodMatrix.getColumns() - 1);
-        this.objectiveFunction = new VectorSlice(methodMatrix.get(0), 0, methodMatrix.getColumns());
+        // right hand side column is not a variable, so it is never priced
+        this.objectiveFunction = new VectorSlice(methodMatrix.get(0), 0, methodMatrix.getColumns() - 1);
         cmp = new DoublePreciseComparator(accuracy);
+        range = new double[columns + rows];
+        Arrays.fill(range, Double.POSITIVE_INFINITY);
+        offset = new double[columns + rows];
+        isComplemented = new boolean[columns + rows];
         this.mode = mode;
-        basis = new int[constrains.getRows()];
+        basis = new int[rows];
         int componentsAmount = objectiveFunction.size();
         for (int i = 0; i < basis.length; i++) {
             basis[i] = componentsAmount + i;
@@ -65,13 +197,13 @@ public class SimplexMatrix {
      * @throws ApplicationProblemException When simplex method is not applicable for the problem
      *                                     (have unbounded max value)
      */
-    public SimplexMatrix(Vector objectiveFunction, Matrix constrains, Vector rightHandSide, double accuracy) throws ApplicationProblemException {
+    public SimplexMatrix(Vector objectiveFunction, MatrixOperator constrains, Vector rightHandSide, double accuracy) throws ApplicationProblemException {
         this(objectiveFunction, constrains, rightHandSide, accuracy, OptimizationMode.MAX);
     }
 
     /**
      * Construct the simplex matrix for solving the maximization problem with absolute accuracy.
-     * !! CAUTION: can produce infinite number of iterations !!
+     * !! CAUTION: round-off errors are not tolerated, limit the solution by {@link #setMaxIterations} !!
      * @param objectiveFunction Coefficients vector of linear function in R^(objectiveFunction.size())
      * @param constrains matrix of constrains over objectiveFunction variables
      *                   (constrain - inequality in form "x_1 + ... + x_n <= u_j")
@@ -79,13 +211,13 @@ public class SimplexMatrix {
      * @throws ApplicationProblemException When simplex method is not applicable for the problem
      *                                     (have unbounded max value)
      */
-    public SimplexMatrix(Vector objectiveFunction, Matrix constrains, Vector rightHandSide) throws ApplicationProblemException {
+    public SimplexMatrix(Vector objectiveFunction, MatrixOperator constrains, Vector rightHandSide) throws ApplicationProblemException {
         this(objectiveFunction, constrains, rightHandSide, 0, OptimizationMode.MAX);
     }
 
     /**
      * Construct the simplex matrix with absolute accuracy.
-     * !! CAUTION: can produce infinite number of iterations !!
+     * !! CAUTION: round-off errors are not tolerated, limit the solution by {@link #setMaxIterations} !!
      * @param objectiveFunction Coefficients vector of linear function in R^(objectiveFunction.size())
      * @param constrains matrix of constrains over objectiveFunction variables
      *                   (constrain - inequality in form "x_1 + ... + x_n <= u_j")
@@ -94,17 +226,219 @@ public class SimplexMatrix {
      * @throws ApplicationProblemException When simplex method is not applicable for the problem
      *                                     (have unbounded max/min value)
      */
-    public SimplexMatrix(Vector objectiveFunction, Matrix constrains, Vector rightHandSide, OptimizationMode mode) throws ApplicationProblemException {
+    public SimplexMatrix(Vector objectiveFunction, MatrixOperator constrains, Vector rightHandSide, OptimizationMode mode) throws ApplicationProblemException {
         this(objectiveFunction, constrains, rightHandSide, 0, mode);
     }
 
+    /**
+     * Set execution mode for the row updates of pivots. Results do not depend on the mode
+     * @param mode sequential or parallel mode
+     */
+    public void setParallelism(RowParallelism mode) {
+        parallelism = mode;
+    }
+
+    /**
+     * Set the rule of the entering variable choice. Rules with state must not be shared between tableaus
+     * @param rule pricing rule, {@link DantzigRule} by default
+     */
+    public void setPricingRule(PricingRule rule) {
+        pricing = rule;
+    }
+
+    /**
+     * Rule of the entering variable choice
+     * @return pricing rule with its iteration counter
+     */
+    public PricingRule getPricingRule() {
+        return pricing;
+    }
+
+    /**
+     * Attach the instrumentation: iterations, timings of pricing, ratio test and row updates, objective progress
+     * @param metrics metrics to accumulate, null to disable the instrumentation
+     */
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Set bounds "lower_j <= x_j <= upper_j" of the variables instead of "x_j >= 0". Bounds do not become rows
+     * of the tableau: variables are shifted by the lower bounds, and the ratio test moves a variable
+     * to its upper bound by complementing it (x_j = upper_j - x'_j) without a pivot, when it is the nearest one.
+     * !! Mutate the entry !!
+     * @param lower finite lower bounds of the variables, null for zero ones
+     * @param upper upper bounds of the variables ({@link Double#POSITIVE_INFINITY} for unbounded ones), null for none
+     * @throws DimensionsException if size of the bounds differs from amount of variables
+     * @throws ApplicationProblemException if some lower bound is infinite or greater than the upper one
+     * @throws IllegalStateException if the tableau was already pivoted
+     */
+    public void setBounds(Vector lower, Vector upper) throws DimensionsException, ApplicationProblemException {
+        int variables = methodMatrix.getColumns() - methodMatrix.getRows();
+        if ((lower != null && lower.size() != variables) || (upper != null && upper.size() != variables)) {
+            throw new DimensionsException("Bounds must be given for each of " + variables + " variables");
+        }
+        if (pivots != 0 || boundFlips != 0) {
+            throw new IllegalStateException("Bounds must be set before the solution");
+        }
+        for (int j = 0; j < variables; j++) {
+            double low = lower == null ? 0 : lower.get(j);
+            double high = upper == null ? Double.POSITIVE_INFINITY : upper.get(j);
+            if (Double.isInfinite(low) || Double.isNaN(low) || !(low <= high)) {
+                throw new ApplicationProblemException("Variable " + j + " has improper bounds [" + low + ", " + high + "]");
+            }
+            range[j] = high - low;
+            // x_j = low + x'_j: all the variables are non basic, so only the right hand sides change
+            shift(j, low - offset[j]);
+        }
+        degeneratePivots = 0;
+    }
+
+    /**
+     * Amount of bound flips
+     * @return amount of the entering variables, which moved to the opposite bound without a pivot
+     */
+    public int getBoundFlips() {
+        return boundFlips;
+    }
+
     /**
      * Performs the iterative solution of the Simplex algorithm.
+     * Starts from the current basis, so after {@link #updateObjective} or {@link #updateRightHandSide}
+     * the previous solution is re-optimized: dual simplex restores feasibility of the right hand sides
+     * (with zero costs, if the current costs are not dual feasible), then primal simplex restores optimality.
+     * After {@link #STALLING_PIVOTS} successive degenerate pivots the entering and leaving variables are chosen by
+     * Bland's rule until the objective function value changes, so the solution does not cycle.
+     * When the iteration or time budget is exhausted, the current (feasible or not) basis is kept and
+     * the next call continues from it, including the count of degenerate pivots, so small budgets do not
+     * prevent the anti-cycling rule.
      * !! Mutate the entry !!
+     * @return {@link SolveStatus#OPTIMAL} if the solution is found, the exhausted budget otherwise
      * @throws ApplicationProblemException if unbounded solution was identified (function have unbounded max/min value)
+     *                                     or constrains have no feasible point
      */
-    public void solve() throws ApplicationProblemException{
-        while (!iteration()){continue;}
+    public SolveStatus solve() throws ApplicationProblemException{
+        long start = System.nanoTime();
+        int startPivots = pivots + boundFlips;
+        if (!isPrimalFeasible()) {
+            boolean isPhaseOne = !isDualFeasible();
+            if (isPhaseOne) {
+                // any basis is dual feasible for zero costs
+                objectiveFunction.scaleBy(0);
+                methodMatrix.set(0, methodMatrix.getColumns() - 1, 0);
+            }
+            SolveStatus status = iterate(true, start, startPivots);
+            if (isPhaseOne) {
+                restoreObjectiveRow();
+            }
+            if (status != SolveStatus.OPTIMAL) {
+                return status;
+            }
+            degeneratePivots = 0;
+        }
+        return iterate(false, start, startPivots);
+    }
+
+    /**
+     * Set the upper bound of pivots in one {@link #solve()} call
+     * @param maxIterations maximal amount of pivots
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Set the upper bound of time of one {@link #solve()} call. It is checked between pivots
+     * @param limit maximal wall-clock time
+     */
+    public void setTimeLimit(Duration limit) {
+        timeLimit = limit.toNanos();
+    }
+
+    /**
+     * Amount of pivots chosen by Bland's rule on stalling
+     * @return amount of anti-cycling pivots since construction
+     */
+    public int getAntiCyclingPivots() {
+        return antiCyclingPivots;
+    }
+
+    // Runs dual or primal iterations until the optimum or the end of the budgets. The budgets are checked before
+    // each pivot, so none is made over them, and the basis, already optimal for the phase, is reported as optimal
+    private SolveStatus iterate(boolean isDual, long start, int startPivots) throws ApplicationProblemException {
+        while (true) {
+            SolveStatus status = null;
+            if (pivots + boundFlips - startPivots >= maxIterations) {
+                status = SolveStatus.ITERATION_LIMIT;
+            } else if (System.nanoTime() - start >= timeLimit) {
+                status = SolveStatus.TIME_LIMIT;
+            }
+            if (status != null) {
+                return (isDual ? isPrimalFeasible() : isDualFeasible()) ? SolveStatus.OPTIMAL : status;
+            }
+            if (isDual ? dualIteration() : iteration()) {
+                return SolveStatus.OPTIMAL;
+            }
+        }
+    }
+
+    /**
+     * Replace the objective function coefficients, keeping the current basis. Call {@link #solve()} to re-optimize
+     * !! Mutate the entry !!
+     * @param objectiveFunction new coefficients (of the same size as the original ones)
+     * @throws DimensionsException if size of the coefficients differs from the original one
+     */
+    public void updateObjective(Vector objectiveFunction) throws DimensionsException {
+        int variables = methodMatrix.getColumns() - methodMatrix.getRows();
+        if (objectiveFunction.size() > variables) {
+            throw new DimensionsException("Objective function must have at most " + variables + " coefficients");
+        }
+        Arrays.fill(costs, 0);
+        for (int j = 0; j < objectiveFunction.size(); j++) {
+            costs[j] = objectiveFunction.get(j) * mode.factor;
+        }
+        restoreObjectiveRow();
+        degeneratePivots = 0;
+    }
+
+    /**
+     * Replace the right hand sides of the constrains, keeping the current basis.
+     * New values of the basic variables are B^-1 * b, where B^-1 is held by the slack columns of the tableau.
+     * Call {@link #solve()} to re-optimize
+     * !! Mutate the entry !!
+     * @param rightHandSide new right hand sides (one for each constrain)
+     * @throws DimensionsException if size differs from amount of constrains
+     */
+    public void updateRightHandSide(Vector rightHandSide) throws DimensionsException {
+        int rows = methodMatrix.getRows() - 1;
+        if (rightHandSide.size() != constrainsAmount) {
+            throw new DimensionsException("Right hand side must have " + constrainsAmount + " items");
+        }
+        int last = methodMatrix.getColumns() - 1;
+        int slacks = last - rows;
+        for (int i = 1; i <= rows; i++) {
+            double item = 0;
+            for (int k = 0; k < rows; k++) {
+                item += methodMatrix.get(i, slacks + k) * rowSign[k] * rightHandSide.get(rowConstrain[k]);
+            }
+            // B^-1 * (b - A * offset), tableau columns of the complemented variables are negated
+            for (int j = 0; j < slacks; j++) {
+                if (offset[j] != 0) {
+                    item -= methodMatrix.get(i, j) * (isComplemented[j] ? -offset[j] : offset[j]);
+                }
+            }
+            methodMatrix.set(i, last, item);
+        }
+        restoreObjectiveRow();
+        degeneratePivots = 0;
+    }
+
+    /**
+     * Amount of pivots
+     * @return amount of pivots done since the construction
+     */
+    public int getPivots() {
+        return pivots;
     }
 
     /**
@@ -114,38 +448,231 @@ public class SimplexMatrix {
      * @throws ApplicationProblemException if unbounded solution was identified (function have unbounded max/min value)
      */
     protected boolean iteration() throws ApplicationProblemException {
-        double[] ratios = new double[rightHandSide.size()];
-        int enters = objectiveFunction.theMost((a, b) -> cmp.compare(a, b) < 0);
-        if (cmp.compare(objectiveFunction.get(enters), 0d) >= 0) {
+        long time = metrics == null ? 0 : metrics.start();
+        boolean isStalling = degeneratePivots >= STALLING_PIVOTS;
+        int enters = isStalling ? bland.choose(this) : pricing.choose(this);
+        if (metrics != null) {
+            time = metrics.record(SolverPhase.PRICING, time);
+        }
+        if (enters < 0) {
             return true;
         }
         ColumnVector pivotColumn = new ColumnVector(methodMatrix, enters);
-        int leaves = 1;
-        // do not consider ratio z/z()
+        // the step is bounded by the range of the entering variable, by basic variables, which decrease to zero
+        // (positive pivot item), and by bounded basic variables, which increase to their range (negative one).
+        // Zero ratio (degenerate row) is a valid minimum, otherwise such row becomes infeasible after the pivot
+        double step = range[enters];
+        int leaves = -1;
+        boolean isLeavingAtUpper = false;
         for (int i = 1; i < methodMatrix.rows; i++) {
-            ratios[i] = rightHandSide.get(i) / pivotColumn.get(i);
-            if ((cmp.compare(ratios[i], ratios[leaves]) < 0 || cmp.compare(ratios[leaves], 0d) <= 0)
-                    && cmp.compare(ratios[i], 0d) > 0) {
+            double item = pivotColumn.get(i);
+            double ratio;
+            boolean isUpper = cmp.compare(item, 0d) < 0;
+            if (cmp.compare(item, 0d) > 0) {
+                ratio = Math.max(rightHandSide.get(i), 0) / item;
+            } else if (isUpper && range[basis[i - 1]] < Double.POSITIVE_INFINITY) {
+                ratio = Math.max(range[basis[i - 1]] - rightHandSide.get(i), 0) / -item;
+            } else {
+                continue;
+            }
+            int order = leaves < 0 && step == Double.POSITIVE_INFINITY ? -1 : cmp.compare(ratio, step);
+            // Bland's rule breaks ties by the smallest index of the basic variable
+            if (order < 0 || (order == 0 && isStalling && leaves >= 0 && basis[i - 1] < basis[leaves - 1])) {
                 leaves = i;
+                step = ratio;
+                isLeavingAtUpper = isUpper;
             }
         }
-        RowVector pivotRow = methodMatrix.get(leaves);
-        if (cmp.compare(ratios[leaves], 0d) <= 0) {
+        if (leaves < 0 && step == Double.POSITIVE_INFINITY) {
             throw new ApplicationProblemException("Unbounded solution");
         }
-        pivotRow.scaleBy(1 / methodMatrix.get(leaves, enters));
-        for (int i = 0; i < methodMatrix.rows; i++) {
-            if (i == leaves) {
-                continue;
+        if (metrics != null) {
+            time = metrics.record(SolverPhase.RATIO_TEST, time);
+        }
+        if (isStalling) {
+            antiCyclingPivots++;
+        }
+        degeneratePivots = cmp.compare(step, 0d) <= 0 ? degeneratePivots + 1 : 0;
+        if (leaves < 0) {
+            // entering variable reaches its upper bound before any basic one
+            complement(enters);
+            boundFlips++;
+        } else {
+            if (isLeavingAtUpper) {
+                complementBasic(leaves);
             }
-            double pivotColumnElement = pivotColumn.get(i);
-            methodMatrix.get(i).mutateBy(pivotRow, (current, pivot) -> current - pivot * pivotColumnElement);
+            pivot(leaves, enters);
+        }
+        iterationFinished("simplex", time);
+        return false;
+    }
+
+    // Accounts the update phase and notifies the metrics
+    private void iterationFinished(String solver, long time) {
+        if (metrics != null) {
+            metrics.record(SolverPhase.UPDATE, time);
+            metrics.iterationFinished(solver, getObjectiveFunctionValue());
         }
-        basis[leaves - 1] = enters;
+    }
 
+    /**
+     * Performs one iteration of the dual Simplex algorithm: the most negative right hand side leaves the basis,
+     * the entering column keeps the objective row non negative.
+     * !! Mutate the entry !!
+     * @return true if all right hand sides are non negative, false otherwise.
+     * @throws ApplicationProblemException if constrains have no feasible point
+     */
+    protected boolean dualIteration() throws ApplicationProblemException {
+        long time = metrics == null ? 0 : metrics.start();
+        boolean isStalling = degeneratePivots >= STALLING_PIVOTS;
+        int leaves = 1;
+        for (int i = 2; i < methodMatrix.rows; i++) {
+            boolean isBetter = isStalling
+                    // Bland's rule: infeasible row with the smallest index of the basic variable
+                    ? cmp.compare(infeasibility(i), 0d) < 0
+                            && (cmp.compare(infeasibility(leaves), 0d) >= 0 || basis[i - 1] < basis[leaves - 1])
+                    : infeasibility(i) < infeasibility(leaves);
+            if (isBetter) {
+                leaves = i;
+            }
+        }
+        if (metrics != null) {
+            time = metrics.record(SolverPhase.PRICING, time);
+        }
+        if (methodMatrix.rows < 2 || cmp.compare(infeasibility(leaves), 0d) >= 0) {
+            return true;
+        }
+        if (rightHandSide.get(leaves) > range[basis[leaves - 1]]) {
+            // basic variable above its upper bound leaves at it: complemented, it is negative
+            complementBasic(leaves);
+        }
+        int enters = -1;
+        double ratio = Double.POSITIVE_INFINITY;
+        for (int j = 0; j < methodMatrix.columns - 1; j++) {
+            double item = methodMatrix.get(leaves, j);
+            if (cmp.compare(item, 0d) < 0) {
+                double current = Math.max(objectiveFunction.get(j), 0) / -item;
+                if (current < ratio) {
+                    ratio = current;
+                    enters = j;
+                }
+            }
+        }
+        if (enters < 0) {
+            throw new ApplicationProblemException("Constrains have no feasible point");
+        }
+        if (metrics != null) {
+            time = metrics.record(SolverPhase.RATIO_TEST, time);
+        }
+        if (isStalling) {
+            antiCyclingPivots++;
+        }
+        degeneratePivots = cmp.compare(ratio, 0d) <= 0 ? degeneratePivots + 1 : 0;
+        pivot(leaves, enters);
+        iterationFinished("dual simplex", time);
         return false;
     }
 
+    /**
+     * Gauss-Jordan pivot: the variable of the column enters the basis instead of the basic variable of the row
+     * !! Mutate the entry !!
+     * @param row index of the pivot row in the tableau (1 for the first constrain)
+     * @param column index of the entering variable
+     */
+    void pivot(int row, int column) {
+        pricing.update(this, row, column);
+        // tableau is never transposed, so its rows are contiguous ranges of the storage
+        double[] items = methodMatrix.lineRepresentation;
+        int width = methodMatrix.columns;
+        int pivotStart = row * width;
+        VectorKernels.scale(items, pivotStart, width, 1 / items[pivotStart + column]);
+        parallelism.forEachRow(0, methodMatrix.rows, width, i -> {
+            if (i != row) {
+                VectorKernels.axpy(-items[i * width + column], items, pivotStart, items, i * width, width);
+            }
+        });
+        basis[row - 1] = column;
+        pivots++;
+    }
+
+    // Whether all basic variables are within their ranges (with respect to accuracy)
+    private boolean isPrimalFeasible() {
+        for (int i = 1; i < methodMatrix.rows; i++) {
+            if (cmp.compare(infeasibility(i), 0d) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Distance of the basic variable of the row to the nearest violated bound (negative), non negative if it is feasible
+    private double infeasibility(int row) {
+        double value = rightHandSide.get(row);
+        return Math.min(value, range[basis[row - 1]] - value);
+    }
+
+    // Substitutes x_j = delta + x'_j for the non basic variable: right hand sides lose delta * (column j)
+    private void shift(int column, double delta) {
+        if (delta == 0) {
+            return;
+        }
+        int last = methodMatrix.getColumns() - 1;
+        for (int i = 0; i < methodMatrix.rows; i++) {
+            methodMatrix.set(i, last, methodMatrix.get(i, last) - delta * methodMatrix.get(i, column));
+        }
+        offset[column] += isComplemented[column] ? -delta : delta;
+    }
+
+    // Moves the non basic variable to its opposite bound: x'_j = range_j - x''_j, so the column is negated
+    private void complement(int column) {
+        shift(column, range[column]);
+        for (int i = 0; i < methodMatrix.rows; i++) {
+            methodMatrix.set(i, column, -methodMatrix.get(i, column));
+        }
+        isComplemented[column] = !isComplemented[column];
+    }
+
+    // Complements the basic variable of the row: the row is negated (except the unit item) and its value is range - value
+    private void complementBasic(int row) {
+        int variable = basis[row - 1];
+        int last = methodMatrix.getColumns() - 1;
+        RowVector basicRow = methodMatrix.get(row);
+        basicRow.scaleBy(-1);
+        methodMatrix.set(row, variable, 1);
+        methodMatrix.set(row, last, methodMatrix.get(row, last) + range[variable]);
+        offset[variable] += isComplemented[variable] ? -range[variable] : range[variable];
+        isComplemented[variable] = !isComplemented[variable];
+    }
+
+    // Whether the objective row has no negative items (with respect to accuracy)
+    private boolean isDualFeasible() {
+        for (int j = 0; j < methodMatrix.columns - 1; j++) {
+            if (cmp.compare(objectiveFunction.get(j), 0d) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Objective row c - c_B * B^-1 * [A I b] for the current basis (costs of the complemented variables are negated,
+    // the right hand side starts from minus the cost of the offsets)
+    private void restoreObjectiveRow() {
+        int last = methodMatrix.getColumns() - 1;
+        double value = 0;
+        for (int j = 0; j < last; j++) {
+            methodMatrix.set(0, j, isComplemented[j] ? -costs[j] : costs[j]);
+            value -= costs[j] * offset[j];
+        }
+        methodMatrix.set(0, last, value);
+        RowVector objectiveRow = methodMatrix.get(0);
+        for (int i = 0; i < basis.length; i++) {
+            double basicCost = methodMatrix.get(0, basis[i]);
+            if (basicCost != 0) {
+                objectiveRow.addScaled(methodMatrix.get(i + 1), -basicCost);
+            }
+        }
+    }
+
     /**
      * State of the solution
      * @return the objective function vector on current iteration (values of all variables, including the slack ones)
@@ -157,6 +684,11 @@ public class SimplexMatrix {
         for (int index : basis) {
             result.set(index, rhs.next());
         }
+        for (int j = 0; j < result.size(); j++) {
+            if (offset[j] != 0 || isComplemented[j]) {
+                result.set(j, offset[j] + (isComplemented[j] ? -result.get(j) : result.get(j)));
+            }
+        }
         return result;
     }
 
@@ -170,32 +702,33 @@ public class SimplexMatrix {
 
     /**
      * Solution for 1st homework
-     * @param args command line arguments
+     * @param args command line arguments, optional path to the file with input
+     * @throws IOException if input cannot be read
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // Reading the objective function, constraints matrix, and right-hand side values from input
-        Scanner scanner = new Scanner(System.in);
+        ProblemReader reader = args.length > 0 ? new ProblemReader(Path.of(args[0])) : new ProblemReader(System.in);
         OptimizationMode mode;
         while (true) {
             try {
                 System.out.println("Enter \"min\" for minimization either \"max\" for maximization");
-                mode = OptimizationMode.valueOf(scanner.nextLine().trim().toUpperCase());
+                mode = OptimizationMode.valueOf(reader.readLine().trim().toUpperCase());
                 break;
             } catch (IllegalArgumentException ignored) {
             }
         }
         System.out.println("Enter objective function coefficients (vector):");
-        Vector objectiveFunction = RowVector.scan(scanner);
+        Vector objectiveFunction = reader.readRowVector();
         System.out.println("Enter constrains functions coefficients (matrix):");
         Matrix constrains;
         try {
-            constrains = Matrix.scan(scanner);
+            constrains = reader.readMatrix();
         } catch (DimensionsException ignored){
             throw new RuntimeException("Improper input, constrains is not a proper matrix");
             // It is assumed, that input is a correct matrix? so than exception is impossible
         }
         System.out.println("Enter right hand sides for constrains (vector):");
-        Vector rightHandSide = RowVector.scan(scanner);
+        Vector rightHandSide = reader.readRowVector();
         try {
             // Create SimplexMatrix and perform iterations to find the optimal solution
             SimplexMatrix solution;
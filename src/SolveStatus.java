@@ -0,0 +1,12 @@
+// Enum representing the outcome of the iterative solution
+public enum SolveStatus {
+    OPTIMAL("Optimal solution is found"),
+    ITERATION_LIMIT("Iteration limit is reached"),
+    TIME_LIMIT("Time limit is reached");
+
+    public final String description;
+
+    SolveStatus(String description) {
+        this.description = description;
+    }
+}
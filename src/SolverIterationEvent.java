@@ -0,0 +1,59 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of one solver iteration. Events are committed by {@link #LISTENER} only while
+ * a recording with the event enabled is running, otherwise the listener costs one disabled check
+ */
+@Name("solver.Iteration")
+@Label("Solver Iteration")
+@Category("Solvers")
+@Description("Counters and timings of one iteration of a linear programming or transportation solver")
+public class SolverIterationEvent extends jdk.jfr.Event {
+    /** Listener, which commits the event for each iteration */
+    public static final SolverListener LISTENER = SolverIterationEvent::commit;
+
+    @Label("Solver")
+    String solver;
+
+    @Label("Iteration")
+    int iteration;
+
+    @Label("Objective")
+    double objective;
+
+    @Label("Pricing Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long pricingNanos;
+
+    @Label("Ratio Test Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long ratioTestNanos;
+
+    @Label("Update Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long updateNanos;
+
+    @Label("Factorization Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long factorizationNanos;
+
+    // Cumulative values of the metrics after the iteration
+    private static void commit(String solver, SolverMetrics metrics) {
+        SolverIterationEvent event = new SolverIterationEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.solver = solver;
+        event.iteration = metrics.getIterations();
+        event.objective = metrics.getObjective();
+        event.pricingNanos = metrics.getNanos(SolverPhase.PRICING);
+        event.ratioTestNanos = metrics.getNanos(SolverPhase.RATIO_TEST);
+        event.updateNanos = metrics.getNanos(SolverPhase.UPDATE);
+        event.factorizationNanos = metrics.getNanos(SolverPhase.FACTORIZATION);
+        event.commit();
+    }
+}
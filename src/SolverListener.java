@@ -0,0 +1,11 @@
+/** Observer of the solver progress, called by {@link SolverMetrics} after each iteration */
+@FunctionalInterface
+public interface SolverListener {
+    /**
+     * Notification about the finished iteration
+     *
+     * @param solver  name of the solver
+     * @param metrics counters, timings and objective value after the iteration
+     */
+    void onIteration(String solver, SolverMetrics metrics);
+}
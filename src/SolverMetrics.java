@@ -0,0 +1,122 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Iteration counter, per-phase timings and objective progress of a solver. Solvers do not measure anything
+ * without metrics (they are null by default), so the instrumentation costs one null check per phase.
+ * One instance may be attached to several solvers in sequence, the values are accumulated; it is not thread safe.
+ * <p>
+ * Usage: {@code solver.setMetrics(new SolverMetrics().addListener(SolverIterationEvent.LISTENER))}
+ */
+public class SolverMetrics {
+    private final List<SolverListener> listeners = new ArrayList<>();
+    private final long[] nanos = new long[SolverPhase.values().length];
+    private int iterations;
+    private double objective = Double.NaN;
+
+    /**
+     * Subscribe the listener to the iterations
+     *
+     * @param listener listener, called after each iteration
+     * @return this metrics
+     */
+    public SolverMetrics addListener(SolverListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Start of a measured phase
+     *
+     * @return current time in nanoseconds
+     */
+    long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Account the time since the start of the phase
+     *
+     * @param phase phase, which has ended
+     * @param since start of the phase, given by {@link #start()} or previous record
+     * @return current time in nanoseconds, the start of the next phase
+     */
+    long record(SolverPhase phase, long since) {
+        long now = System.nanoTime();
+        nanos[phase.ordinal()] += now - since;
+        return now;
+    }
+
+    /**
+     * Count the finished iteration and notify listeners
+     *
+     * @param solver    name of the solver
+     * @param objective value of the objective function after the iteration
+     */
+    void iterationFinished(String solver, double objective) {
+        iterations++;
+        this.objective = objective;
+        for (SolverListener listener : listeners) {
+            listener.onIteration(solver, this);
+        }
+    }
+
+    /**
+     * Amount of iterations
+     *
+     * @return amount of finished iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Objective progress
+     *
+     * @return value of the objective function after the last iteration, NaN before the first one
+     */
+    public double getObjective() {
+        return objective;
+    }
+
+    /**
+     * Time spent in the phase
+     *
+     * @param phase phase of the iterations
+     * @return total time in nanoseconds
+     */
+    public long getNanos(SolverPhase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * Time spent in all the phases
+     *
+     * @return total time in nanoseconds
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (long item : nanos) {
+            total += item;
+        }
+        return total;
+    }
+
+    /** Clear counters and timings, listeners are kept */
+    public void reset() {
+        Arrays.fill(nanos, 0);
+        iterations = 0;
+        objective = Double.NaN;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(iterations).append(" iterations, objective ").append(objective);
+        for (SolverPhase phase : SolverPhase.values()) {
+            sb.append(", ").append(phase.fullName).append(' ').append(nanos[phase.ordinal()] / 1_000).append(" us");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,17 @@
+// Enum representing the timed parts of a solver iteration
+public enum SolverPhase {
+    /** choice of the entering variable: simplex pricing, reduced costs of MODI and network simplex, chooser cell */
+    PRICING("pricing"),
+    /** choice of the leaving variable: simplex ratio test, cycle of MODI and network simplex */
+    RATIO_TEST("ratio test"),
+    /** change of the state: tableau row updates, flow and tree updates, allocation, interior point step */
+    UPDATE("update"),
+    /** normal equations of the interior point method, spanning tree and potentials of MODI */
+    FACTORIZATION("factorization");
+
+    public final String fullName;
+
+    SolverPhase(String name) {
+        fullName = name;
+    }
+}
@@ -0,0 +1,31 @@
+import java.util.Arrays;
+
+/**
+ * Scratch buffers of a single worker of the {@link BatchSolver}.
+ * A workspace is used by one problem at a time, matrices handed out by it are valid
+ * only until the next request to the same workspace
+ */
+public class SolverWorkspace {
+    /** storage of the last handed out matrix, reused while problems have the same dimensions */
+    private double[] storage = new double[0];
+
+    SolverWorkspace() {
+    }
+
+    /**
+     * Zero filled matrix over the reused storage
+     *
+     * @param rows    amount of rows
+     * @param columns amount of columns
+     * @return matrix (rows x columns) with all items equal to zero
+     */
+    Matrix matrix(int rows, int columns) {
+        int size = rows * columns;
+        if (storage.length == size) {
+            Arrays.fill(storage, 0);
+        } else {
+            storage = new double[size];
+        }
+        return new Matrix(rows, columns, storage);
+    }
+}
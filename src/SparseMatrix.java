@@ -0,0 +1,427 @@
+import Exceptions.DimensionsException;
+
+/**
+ * Immutable sparse matrix, stored both in compressed sparse column (CSC) and compressed sparse row (CSR) layouts.
+ * CSC gives cheap column extraction and A^T*y, CSR gives cheap A*x.
+ * Memory is O(rows + columns + non zeros), so identity blocks and >99% zero constraints stay small
+ */
+public class SparseMatrix implements MatrixOperator {
+    /** number of rows */
+    final int rows;
+    /** number of columns */
+    final int columns;
+
+    /** CSC: entries of the j-th column are stored at [columnPointers[j], columnPointers[j+1]) */
+    final int[] columnPointers;
+    /** CSC: row index of each entry, sorted within a column */
+    final int[] rowIndices;
+    /** CSC: value of each entry */
+    final double[] columnValues;
+
+    /** CSR: entries of the i-th row are stored at [rowPointers[i], rowPointers[i+1]) */
+    final int[] rowPointers;
+    /** CSR: column index of each entry, sorted within a row */
+    final int[] columnIndices;
+    /** CSR: value of each entry */
+    final double[] rowValues;
+
+    /**
+     * Generates a sparse identity matrix of given size
+     *
+     * @param size dimension of generating Identity
+     * @return Matrix (size x size) with ones on diagonal
+     */
+    public static SparseMatrix identity(int size) {
+        int[] indices = new int[size];
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+            values[i] = 1;
+        }
+        return new SparseMatrix(size, size, indices, indices, values);
+    }
+
+    /**
+     * Construct the sparse copy of the matrix, only non zero items are stored
+     *
+     * @param origin matrix to be copied
+     * @return sparse matrix with the same items
+     */
+    public static SparseMatrix from(MatrixOperator origin) {
+        int count = 0;
+        for (int i = 0; i < origin.getRows(); i++) {
+            for (int j = 0; j < origin.getColumns(); j++) {
+                if (origin.get(i, j) != 0) {
+                    count++;
+                }
+            }
+        }
+        int[] rowIndex = new int[count];
+        int[] columnIndex = new int[count];
+        double[] values = new double[count];
+        int k = 0;
+        for (int i = 0; i < origin.getRows(); i++) {
+            for (int j = 0; j < origin.getColumns(); j++) {
+                double value = origin.get(i, j);
+                if (value != 0) {
+                    rowIndex[k] = i;
+                    columnIndex[k] = j;
+                    values[k++] = value;
+                }
+            }
+        }
+        return new SparseMatrix(origin.getRows(), origin.getColumns(), rowIndex, columnIndex, values);
+    }
+
+    /**
+     * Construct the matrix from coordinate (triplet) representation.
+     * Entries with the same position are summed up, explicitly given zeros are kept
+     *
+     * @param rows          number of rows
+     * @param columns       number of columns
+     * @param rowIndex      row of each entry
+     * @param columnIndex   column of each entry
+     * @param values        value of each entry
+     * @throws IndexOutOfBoundsException if some entry is out of the matrix
+     * @throws IllegalArgumentException  if triplet arrays have different length
+     */
+    public SparseMatrix(int rows, int columns, int[] rowIndex, int[] columnIndex, double[] values) {
+        if (rowIndex.length != columnIndex.length || rowIndex.length != values.length) {
+            throw new IllegalArgumentException("Triplet arrays must have the same length");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        int count = values.length;
+        for (int k = 0; k < count; k++) {
+            if (rowIndex[k] < 0 || rowIndex[k] >= rows || columnIndex[k] < 0 || columnIndex[k] >= columns) {
+                throw new IndexOutOfBoundsException("Entry (" + rowIndex[k] + ", " + columnIndex[k]
+                        + ") does not belong to matrix (" + rows + " x " + columns + ")");
+            }
+        }
+
+        // counting sort by row, then by column: entries become ordered as in CSR
+        int[] byRow = bucket(rowIndex, rows, identityOrder(count));
+        int[] order = bucket(columnIndex, columns, byRow);
+        // order is sorted by (column, row): merge duplicates and fill CSC
+        int[] pointers = new int[columns + 1];
+        int[] indices = new int[count];
+        double[] data = new double[count];
+        int size = 0;
+        for (int k = 0; k < count; k++) {
+            int entry = order[k];
+            if (size > 0
+                    && indices[size - 1] == rowIndex[entry]
+                    && k > 0 && columnIndex[order[k - 1]] == columnIndex[entry]) {
+                data[size - 1] += values[entry];
+                continue;
+            }
+            indices[size] = rowIndex[entry];
+            data[size] = values[entry];
+            pointers[columnIndex[entry] + 1]++;
+            size++;
+        }
+        for (int j = 0; j < columns; j++) {
+            pointers[j + 1] += pointers[j];
+        }
+        columnPointers = pointers;
+        rowIndices = trim(indices, size);
+        columnValues = trim(data, size);
+
+        // CSR is the transposition of CSC
+        rowPointers = new int[rows + 1];
+        columnIndices = new int[size];
+        rowValues = new double[size];
+        transpose(columns, columnPointers, rowIndices, columnValues, rows, rowPointers, columnIndices, rowValues);
+    }
+
+    // Constructor over ready compressed layouts (no copying)
+    private SparseMatrix(int rows, int columns,
+                         int[] columnPointers, int[] rowIndices, double[] columnValues,
+                         int[] rowPointers, int[] columnIndices, double[] rowValues) {
+        this.rows = rows;
+        this.columns = columns;
+        this.columnPointers = columnPointers;
+        this.rowIndices = rowIndices;
+        this.columnValues = columnValues;
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.rowValues = rowValues;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Amount of stored entries
+     *
+     * @return number of non zero (explicitly stored) items
+     */
+    public int nonZeros() {
+        return columnValues.length;
+    }
+
+    @Override
+    public double get(int row, int column) throws IndexOutOfBoundsException {
+        int position = find(row, column);
+        return position < 0 ? 0 : rowValues[position];
+    }
+
+    /**
+     * Whether the item is explicitly stored (e.g. whether the route of the transportation problem is allowed)
+     *
+     * @param row    row of the item
+     * @param column column of the item
+     * @return true if the item is stored, even if it is zero
+     * @throws IndexOutOfBoundsException if the item is out of the matrix
+     */
+    public boolean isStored(int row, int column) throws IndexOutOfBoundsException {
+        return find(row, column) >= 0;
+    }
+
+    // Position of the item in the CSR layout, -1 if it is not stored
+    private int find(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Index is not reachable");
+        }
+        int low = rowPointers[row];
+        int high = rowPointers[row + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int current = columnIndices[middle];
+            if (current < column) {
+                low = middle + 1;
+            } else if (current > column) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Vector multiply(Vector vector) throws DimensionsException {
+        if (vector.size() != columns) {
+            throw new DimensionsException("Error: the dimensional problem occurred in Matrix-Vector multiplication");
+        }
+        Vector result = new ColumnVector(rows);
+        for (int i = 0; i < rows; i++) {
+            double sum = 0;
+            for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+                sum += rowValues[k] * vector.get(columnIndices[k]);
+            }
+            result.set(i, sum);
+        }
+        return result;
+    }
+
+    @Override
+    public Vector multiplyTransposed(Vector vector) throws DimensionsException {
+        if (vector.size() != rows) {
+            throw new DimensionsException("Error: the dimensional problem occurred in Matrix-Vector multiplication");
+        }
+        Vector result = new ColumnVector(columns);
+        for (int j = 0; j < columns; j++) {
+            double sum = 0;
+            for (int k = columnPointers[j]; k < columnPointers[j + 1]; k++) {
+                sum += columnValues[k] * vector.get(rowIndices[k]);
+            }
+            result.set(j, sum);
+        }
+        return result;
+    }
+
+    @Override
+    public Vector getColumn(int column) throws IndexOutOfBoundsException {
+        if (column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Index is not reachable");
+        }
+        Vector result = new ColumnVector(rows);
+        for (int k = columnPointers[column]; k < columnPointers[column + 1]; k++) {
+            result.set(rowIndices[k], columnValues[k]);
+        }
+        return result;
+    }
+
+    @Override
+    public Matrix multiplyDiagonal(Vector diagonal) throws DimensionsException {
+        if (diagonal.size() != columns) {
+            throw new DimensionsException("Error: the dimensional problem occurred in Matrix-Diagonal multiplication");
+        }
+        Matrix result = new Matrix(rows, columns);
+        for (int j = 0; j < columns; j++) {
+            double factor = diagonal.get(j);
+            for (int k = columnPointers[j]; k < columnPointers[j + 1]; k++) {
+                result.set(rowIndices[k], j, columnValues[k] * factor);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Matrix normalMatrix(Vector weights) throws DimensionsException {
+        if (weights.size() != columns) {
+            throw new DimensionsException("Error: the dimensional problem occurred in normal matrix computation");
+        }
+        // sum of w_k * a_k * a_k^T over columns, only pairs of non zeros of one column contribute
+        double[] result = new double[rows * rows];
+        for (int k = 0; k < columns; k++) {
+            double weight = weights.get(k);
+            for (int p = columnPointers[k]; p < columnPointers[k + 1]; p++) {
+                double scaled = columnValues[p] * weight;
+                int row = rowIndices[p] * rows;
+                for (int q = columnPointers[k]; q < columnPointers[k + 1]; q++) {
+                    result[row + rowIndices[q]] += scaled * columnValues[q];
+                }
+            }
+        }
+        return new Matrix(rows, rows, result);
+    }
+
+    @Override
+    public void copyTo(Matrix target, int startRow, int startColumn) throws DimensionsException {
+        if (startRow + rows > target.getRows() || startColumn + columns > target.getColumns()) {
+            throw new DimensionsException("Matrix" + target.getRows() + "x" + target.getColumns()
+                    + " is not enough to absorb matrix " + rows + "x" + columns + " into the ("
+                    + startRow + ", " + startColumn + ") position");
+        }
+        for (int j = 0; j < columns; j++) {
+            for (int k = columnPointers[j]; k < columnPointers[j + 1]; k++) {
+                target.set(startRow + rowIndices[k], startColumn + j, columnValues[k]);
+            }
+        }
+    }
+
+    @Override
+    public SparseMatrix withSlackColumns() {
+        return combineRight(identity(rows));
+    }
+
+    /**
+     * Combines the current matrix with another sparse matrix on the right.
+     *
+     * @param augmentation matrix with the same amount of rows
+     * @return new matrix [this | augmentation]
+     * @throws IllegalArgumentException if matrices have different amount of rows
+     */
+    public SparseMatrix combineRight(SparseMatrix augmentation) {
+        if (augmentation.rows != rows) {
+            throw new IllegalArgumentException("Only matrices with the same amount of rows can be combined");
+        }
+        int size = nonZeros() + augmentation.nonZeros();
+        int totalColumns = columns + augmentation.columns;
+        int[] pointers = new int[totalColumns + 1];
+        int[] indices = new int[size];
+        double[] data = new double[size];
+        System.arraycopy(columnPointers, 0, pointers, 0, columns + 1);
+        for (int j = 1; j <= augmentation.columns; j++) {
+            pointers[columns + j] = augmentation.columnPointers[j] + nonZeros();
+        }
+        System.arraycopy(rowIndices, 0, indices, 0, nonZeros());
+        System.arraycopy(augmentation.rowIndices, 0, indices, nonZeros(), augmentation.nonZeros());
+        System.arraycopy(columnValues, 0, data, 0, nonZeros());
+        System.arraycopy(augmentation.columnValues, 0, data, nonZeros(), augmentation.nonZeros());
+
+        int[] csrPointers = new int[rows + 1];
+        int[] csrIndices = new int[size];
+        double[] csrData = new double[size];
+        transpose(totalColumns, pointers, indices, data, rows, csrPointers, csrIndices, csrData);
+        return new SparseMatrix(rows, totalColumns, pointers, indices, data, csrPointers, csrIndices, csrData);
+    }
+
+    /**
+     * Returns the transposed matrix. Layouts are shared, so no items are copied
+     *
+     * @return transposed matrix
+     */
+    public SparseMatrix transposed() {
+        return new SparseMatrix(columns, rows,
+                rowPointers, columnIndices, rowValues,
+                columnPointers, rowIndices, columnValues);
+    }
+
+    @Override
+    public Matrix toDense() {
+        Matrix result = new Matrix(rows, columns);
+        try {
+            copyTo(result, 0, 0);
+        } catch (DimensionsException e) {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toDense().toString();
+    }
+
+    // Converts compressed layout (major x minor) into the transposed compressed layout (minor x major)
+    private static void transpose(int majorSize, int[] pointers, int[] indices, double[] data,
+                                  int minorSize, int[] outPointers, int[] outIndices, double[] outData) {
+        for (int k = 0; k < pointers[majorSize]; k++) {
+            outPointers[indices[k] + 1]++;
+        }
+        for (int i = 0; i < minorSize; i++) {
+            outPointers[i + 1] += outPointers[i];
+        }
+        int[] next = new int[minorSize];
+        System.arraycopy(outPointers, 0, next, 0, minorSize);
+        for (int j = 0; j < majorSize; j++) {
+            for (int k = pointers[j]; k < pointers[j + 1]; k++) {
+                int position = next[indices[k]]++;
+                outIndices[position] = j;
+                outData[position] = data[k];
+            }
+        }
+    }
+
+    // Stable counting sort of entries (given in order) by key
+    private static int[] bucket(int[] key, int keys, int[] order) {
+        int[] start = new int[keys + 1];
+        for (int entry : order) {
+            start[key[entry] + 1]++;
+        }
+        for (int i = 0; i < keys; i++) {
+            start[i + 1] += start[i];
+        }
+        int[] result = new int[order.length];
+        for (int entry : order) {
+            result[start[key[entry]]++] = entry;
+        }
+        return result;
+    }
+
+    private static int[] identityOrder(int count) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    private static int[] trim(int[] array, int size) {
+        if (array.length == size) {
+            return array;
+        }
+        int[] result = new int[size];
+        System.arraycopy(array, 0, result, 0, size);
+        return result;
+    }
+
+    private static double[] trim(double[] array, int size) {
+        if (array.length == size) {
+            return array;
+        }
+        double[] result = new double[size];
+        System.arraycopy(array, 0, result, 0, size);
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Steepest edge rule: the most negative reduced cost d_j relative to the length of the edge,
+ * d_j^2 / (1 + |B^-1 a_j|^2). The tableau holds B^-1 a_j explicitly, so the norms are exact
+ * and computed only for the columns with negative reduced costs
+ */
+public class SteepestEdgeRule implements PricingRule {
+    private int iterations;
+
+    @Override
+    public int choose(SimplexMatrix simplex) {
+        Vector reducedCosts = simplex.objectiveFunction;
+        Matrix tableau = simplex.methodMatrix;
+        int enters = -1;
+        double best = 0;
+        for (int j = 0; j < reducedCosts.size(); j++) {
+            double reducedCost = reducedCosts.get(j);
+            if (simplex.cmp.compare(reducedCost, 0d) >= 0) {
+                continue;
+            }
+            double norm = 1;
+            for (int i = 1; i < tableau.getRows(); i++) {
+                double item = tableau.get(i, j);
+                norm += item * item;
+            }
+            double score = reducedCost * reducedCost / norm;
+            if (score > best) {
+                best = score;
+                enters = j;
+            }
+        }
+        if (enters >= 0) {
+            iterations++;
+        }
+        return enters;
+    }
+
+    @Override
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String toString() {
+        return "Steepest edge";
+    }
+}
@@ -3,18 +3,34 @@ import Exceptions.DimensionsException;
 import Exceptions.ImproperConversionException;
 import Exceptions.TransportUnbalancedProblemException;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Scanner;
 
+/**
+ * Transportation problem: supply points ship to demand points at the given costs per unit.
+ * For the {@link SparseMatrix} costs only the stored items are allowed routes, absent items are forbidden ones
+ * (not zero cost routes) in every method: {@link #solveOptimal()} builds arcs only for the stored items,
+ * {@link ModiOptimizer} never enters absent cells, and the chooser methods ({@link #solve()},
+ * {@link #solveSparse()}) reject the allocation along an absent route, since the choosers do not know the routes.
+ * Dense costs allow every route
+ */
 public class TransportationModel {
-    protected Matrix costs;
+    /** accuracy of the reduced costs comparison in the optimization phase */
+    public static final double DEFAULT_ACCURACY = 1e-9;
+
+    protected MatrixOperator costs;
     protected Vector demand;
     protected Vector supply;
     protected ArrayList<Node> taken;
 
     Chooser method;
+    /** instrumentation of the iterations, null if it is disabled */
+    private SolverMetrics metrics;
+    /** cost of the allocations made so far, tracked only for the metrics */
+    private double allocatedCost;
 
-    public TransportationModel(Matrix costs,
+    public TransportationModel(MatrixOperator costs,
                                Vector demand,
                                Vector supply,
                                Chooser approximationMethod
@@ -40,32 +56,139 @@ public class TransportationModel {
         method = approximationMethod;
     }
 
+    /**
+     * Attach the instrumentation: allocations of the chooser (pricing and update timings, cost of the allocations),
+     * then pivots of the {@link ModiOptimizer} or {@link NetworkSimplex}, if the problem is optimized
+     *
+     * @param metrics metrics to accumulate, null to disable the instrumentation
+     */
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Basic solution of the chooser
+     *
+     * @return allocations (supply x demand) in the dense matrix, so at most 2^31 cells
+     * @throws ApplicationProblemException if chooser is not applicable for the problem
+     * @throws IllegalArgumentException    if the costs exceed 2^31 items, {@link #solveSparse()} has no such limit
+     */
     public Matrix solve() throws ApplicationProblemException {
-        while (demand.any((a) -> a > 0d) && supply.any((a) -> a > 0d)) {
-            iteration();
-        }
+        // allocated first, so the too large problem is rejected before the chooser runs
         Matrix solution = new Matrix(costs.getRows(), costs.getColumns());
+        allocate();
         for (Node i : taken) {
             solution.set(i.row, i.col, i.provided);
         }
         return solution;
     }
 
+    /**
+     * Same as {@link #solve()}, but the basic solution (at most rows+columns-1 allocations)
+     * is returned in sparse storage, so huge problems do not need dense rows x columns solution
+     *
+     * @return allocations of the basic solution
+     * @throws ApplicationProblemException if chooser is not applicable for the problem
+     */
+    public SparseMatrix solveSparse() throws ApplicationProblemException {
+        allocate();
+        int n = taken.size();
+        int[] rows = new int[n];
+        int[] columns = new int[n];
+        double[] values = new double[n];
+        for (int k = 0; k < n; k++) {
+            Node item = taken.get(k);
+            rows[k] = item.row;
+            columns[k] = item.col;
+            values[k] = item.provided;
+        }
+        return new SparseMatrix(costs.getRows(), costs.getColumns(), rows, columns, values);
+    }
+
+    /**
+     * Improves the basic solution of the chooser to the optimal one by the MODI method.
+     * Solves the problem first, if it was not solved yet
+     *
+     * @return optimizer with the optimal solution and the improvement over the chooser
+     * @throws ApplicationProblemException if chooser is not applicable for the problem or MODI method does not converge
+     */
+    public ModiOptimizer optimize() throws ApplicationProblemException {
+        allocate();
+        ModiOptimizer optimizer = new ModiOptimizer(costs, taken, DEFAULT_ACCURACY);
+        optimizer.setMetrics(metrics);
+        optimizer.optimize();
+        return optimizer;
+    }
+
+    /**
+     * Optimal solution by the network simplex method, the chooser is not used.
+     * For the {@link SparseMatrix} costs only the stored items are allowed routes,
+     * so huge problems with sparse routes are solved without dense storage
+     *
+     * @return optimal allocations (supply x demand), only non zero ones are stored
+     * @throws ApplicationProblemException if demand cannot be satisfied along the allowed routes
+     */
+    public SparseMatrix solveOptimal() throws ApplicationProblemException {
+        try {
+            NetworkSimplex solver = NetworkSimplex.fromCosts(costs, supply, demand);
+            solver.setMetrics(metrics);
+            return solver.solve();
+        } catch (TransportUnbalancedProblemException e) {
+            // balance is checked by the constructor
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Runs the chooser until all supply or demand is distributed
+    private void allocate() throws ApplicationProblemException {
+        while (demand.any((a) -> a > 0d) && supply.any((a) -> a > 0d)) {
+            iteration();
+        }
+    }
+
     public void iteration() throws ApplicationProblemException {
+        long time = metrics == null ? 0 : metrics.start();
         Node item = method.choose(this);
+        if (metrics != null) {
+            time = metrics.record(SolverPhase.PRICING, time);
+        }
         double provided = Math.min(supply.get(item.row), demand.get(item.col));
+        if (provided > 0 && !isRoute(costs, item.row, item.col)) {
+            throw new ApplicationProblemException(method + " allocates along the absent route (" + item.row + ", "
+                    + item.col + "), solve the problem with forbidden routes by solveOptimal()");
+        }
         demand.set(item.col, demand.get(item.col) - provided);
         supply.set(item.row, supply.get(item.row) - provided);
         item.setProvided(provided);
         item.setRowTaken(supply.get(item.row) <= demand.get(item.col));
         taken.add(item);
+        if (metrics != null) {
+            metrics.record(SolverPhase.UPDATE, time);
+            allocatedCost += provided * costs.get(item.row, item.col);
+            metrics.iterationFinished("transportation (" + method + ")", allocatedCost);
+        }
+    }
+
+    /**
+     * Whether the cell is an allowed route: any cell of the dense costs, only the stored items of the sparse ones
+     *
+     * @param costs  costs of the transportation
+     * @param row    supply point
+     * @param column demand point
+     * @return true if goods may be shipped along the cell
+     */
+    static boolean isRoute(MatrixOperator costs, int row, int column) {
+        return !(costs instanceof SparseMatrix sparse) || sparse.isStored(row, column);
     }
 
     @Override
     public String toString(){
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < costs.getRows(); i++) {
-            sb.append(costs.get(i)).append("\t|\t").append(supply.get(i)).append('\n');
+            for (int j = 0; j < costs.getColumns(); j++) {
+                sb.append(costs.get(i, j)).append(j + 1 < costs.getColumns() ? ' ' : '\t');
+            }
+            sb.append("|\t").append(supply.get(i)).append('\n');
         }
         // TODO: dynamically sized bottom line
         sb.append("-------------------\n");
@@ -76,32 +199,33 @@ public class TransportationModel {
     /**
      * Solution for 3rd homework
      *
-     * @param args command line arguments
+     * @param args command line arguments, optional path to the file with input
+     * @throws IOException if input cannot be read
      */
-    public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
+    public static void main(String[] args) throws IOException {
+        ProblemReader reader = args.length > 0 ? new ProblemReader(Path.of(args[0])) : new ProblemReader(System.in);
 
         // Read supply value vector
         System.out.println("Enter supply values (vector):");
-        RowVector supply = RowVector.scan(scanner);
+        RowVector supply = reader.readRowVector();
 
         // Read demand value vector
         System.out.println("Enter demand values (vector):");
-        RowVector demand = RowVector.scan(scanner);
+        RowVector demand = reader.readRowVector();
 
         // Read costs matrix
         System.out.println("Enter costs values (matrix):");
         Matrix costs;
         try {
-            costs = Matrix.scan(scanner);
+            costs = reader.readMatrix();
         } catch (DimensionsException ignored) {
             throw new RuntimeException("Improper input, costs is not a proper matrix");
         }
 
         Chooser[] methods = {
                 new NorthWestChooser(),
-                new VogelChooser(),
-                new RusselChooser(),
+                new IncrementalVogelChooser(),
+                new IncrementalRusselChooser(),
         };
 
         // Solve using different approximations
@@ -113,6 +237,11 @@ public class TransportationModel {
                 }
                 Matrix solution = solver.solve();
                 System.out.println("The result of the " + method + " is\n" + solution);
+                ModiOptimizer optimizer = solver.optimize();
+                System.out.println("MODI optimization of the " + method + ": " + optimizer);
+                if (method == methods[methods.length - 1]) {
+                    System.out.println("The optimal solution is\n" + optimizer.getSolution());
+                }
             } catch (ApplicationProblemException e) {
                 System.out.println("The " + method + " is not applicable!");
                 return;
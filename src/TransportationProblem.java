@@ -0,0 +1,49 @@
+import Exceptions.ApplicationProblemException;
+import Exceptions.ImproperConversionException;
+import Exceptions.TransportUnbalancedProblemException;
+
+import java.util.function.Supplier;
+
+/**
+ * Transportation problem solved by {@link TransportationModel} for the {@link BatchSolver}.
+ * Demand and supply are copied into the workspace before solving, so inputs can be shared between problems
+ */
+public class TransportationProblem implements BatchProblem<Matrix> {
+    final MatrixOperator costs;
+    final Vector demand;
+    final Vector supply;
+    /** chooser per solving, since choosers may keep state of the model they work with */
+    final Supplier<? extends Chooser> method;
+
+    /**
+     * Describe the problem, arguments are the same as in the {@link TransportationModel} constructor
+     *
+     * @param costs  costs of the transportation (supply x demand)
+     * @param demand demand values
+     * @param supply supply values
+     * @param method factory of the approximation method
+     */
+    public TransportationProblem(MatrixOperator costs, Vector demand, Vector supply, Supplier<? extends Chooser> method) {
+        this.costs = costs;
+        this.demand = demand;
+        this.supply = supply;
+        this.method = method;
+    }
+
+    @Override
+    public Matrix solve(SolverWorkspace workspace)
+            throws ImproperConversionException, ApplicationProblemException, TransportUnbalancedProblemException {
+        // both remainders share one row of the workspace: demand first, then supply
+        Vector remainders = new RowVector(workspace.matrix(1, demand.size() + supply.size()), 0);
+        Vector demandLeft = copy(demand, new VectorSlice(remainders, 0, demand.size()));
+        Vector supplyLeft = copy(supply, new VectorSlice(remainders, demand.size(), remainders.size()));
+        return new TransportationModel(costs, demandLeft, supplyLeft, method.get()).solve();
+    }
+
+    private static Vector copy(Vector vector, Vector target) {
+        for (int i = 0; i < vector.size(); i++) {
+            target.set(i, vector.get(i));
+        }
+        return target;
+    }
+}
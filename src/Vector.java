@@ -1,9 +1,8 @@
 import Exceptions.DimensionsException;
 
 import java.util.Iterator;
-import java.util.function.BiFunction;
-import java.util.function.BiPredicate;
-import java.util.function.Predicate;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoublePredicate;
 
 /**
  * Interface for vectors, with various utility methods for vector operations
@@ -34,6 +33,35 @@ public interface Vector extends Iterable<Double> {
      */
     int size();
 
+    /**
+     * Array, which stores the items of a dense view: item i is array()[offset() + i * stride()].
+     * Bulk operations of the interface work directly on the array if it is present,
+     * with the SIMD {@link VectorKernels} for the contiguous (stride 1) views
+     *
+     * @return backing array, null if the items are not stored in an array
+     */
+    default double[] array() {
+        return null;
+    }
+
+    /**
+     * Position of the first item in the {@link #array()}
+     *
+     * @return index of the item 0 in the backing array
+     */
+    default int offset() {
+        return 0;
+    }
+
+    /**
+     * Distance between the neighbour items in the {@link #array()}
+     *
+     * @return 1 for the contiguous view
+     */
+    default int stride() {
+        return 1;
+    }
+
     /**
      * Immutably multiply the vector by a scalar value
      *
@@ -53,6 +81,18 @@ public interface Vector extends Iterable<Double> {
         if (size() != another.size()) {
             throw new DimensionsException("Vectors of different size cannot be multiplied");
         }
+        double[] items = array();
+        double[] operand = another.array();
+        if (items != null && operand != null) {
+            if (stride() == 1 && another.stride() == 1) {
+                return VectorKernels.dot(items, offset(), operand, another.offset(), size());
+            }
+            double dotProd = 0;
+            for (int i = 0, a = offset(), b = another.offset(); i < size(); i++, a += stride(), b += another.stride()) {
+                dotProd += items[a] * operand[b];
+            }
+            return dotProd;
+        }
         double dotProd = 0;
         for (int i = 0; i < size(); ++i) {
             dotProd += this.get(i) * another.get(i);
@@ -107,6 +147,17 @@ public interface Vector extends Iterable<Double> {
      */
     default void scaleBy(double factor) {
         int n = size();
+        double[] items = array();
+        if (items != null) {
+            if (stride() == 1) {
+                VectorKernels.scale(items, offset(), n, factor);
+                return;
+            }
+            for (int i = 0, a = offset(); i < n; i++, a += stride()) {
+                items[a] *= factor;
+            }
+            return;
+        }
         for (int i = 0; i < n; i++) {
             set(i, get(i) * factor);
         }
@@ -119,10 +170,44 @@ public interface Vector extends Iterable<Double> {
      * @param operand y vector
      * @param shader  function to be applied
      */
-    default void mutateBy(Vector operand, BiFunction<Double, Double, Double> shader) {
+    default void mutateBy(Vector operand, DoubleBinaryOperator shader) {
         int n = size();
+        double[] items = array();
+        double[] operandItems = operand.array();
+        if (items != null && operandItems != null) {
+            for (int i = 0, a = offset(), b = operand.offset(); i < n; i++, a += stride(), b += operand.stride()) {
+                items[a] = shader.applyAsDouble(items[a], operandItems[b]);
+            }
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            set(i, shader.applyAsDouble(get(i), operand.get(i)));
+        }
+    }
+
+    /**
+     * Mutably add another vector multiplied by a factor (axpy).
+     * x_i = x_i + factor * y_i
+     *
+     * @param operand y vector
+     * @param factor  number on which items of y are multiplied
+     */
+    default void addScaled(Vector operand, double factor) {
+        int n = size();
+        double[] items = array();
+        double[] operandItems = operand.array();
+        if (items != null && operandItems != null) {
+            if (stride() == 1 && operand.stride() == 1) {
+                VectorKernels.axpy(factor, operandItems, operand.offset(), items, offset(), n);
+                return;
+            }
+            for (int i = 0, a = offset(), b = operand.offset(); i < n; i++, a += stride(), b += operand.stride()) {
+                items[a] += factor * operandItems[b];
+            }
+            return;
+        }
         for (int i = 0; i < n; i++) {
-            set(i, shader.apply(get(i), operand.get(i)));
+            set(i, get(i) + factor * operand.get(i));
         }
     }
 
@@ -132,7 +217,7 @@ public interface Vector extends Iterable<Double> {
      * @param shader
      * @return
      */
-    Vector getMutated(Vector operand, BiFunction<Double, Double, Double> shader);
+    Vector getMutated(Vector operand, DoubleBinaryOperator shader);
 
     /**
      * Check if all elements of the vector satisfy a condition
@@ -140,8 +225,17 @@ public interface Vector extends Iterable<Double> {
      * @param condition condition
      * @return true if all elements satisfy the condition, false otherwise
      */
-    default boolean all(Predicate<Double> condition) {
+    default boolean all(DoublePredicate condition) {
         int n = size();
+        double[] items = array();
+        if (items != null) {
+            for (int i = 0, a = offset(); i < n; i++, a += stride()) {
+                if (!condition.test(items[a])) {
+                    return false;
+                }
+            }
+            return true;
+        }
         for (int i = 0; i < n; i++) {
             if (!condition.test(get(i))) {
                 return false;
@@ -150,8 +244,17 @@ public interface Vector extends Iterable<Double> {
         return true;
     }
 
-    default boolean any(Predicate<Double> condition) {
+    default boolean any(DoublePredicate condition) {
         int n = size();
+        double[] items = array();
+        if (items != null) {
+            for (int i = 0, a = offset(); i < n; i++, a += stride()) {
+                if (condition.test(items[a])) {
+                    return true;
+                }
+            }
+            return false;
+        }
         for (int i = 0; i < n; i++) {
             if (condition.test(get(i))) {
                 return true;
@@ -167,7 +270,7 @@ public interface Vector extends Iterable<Double> {
      * @param criteria base predicate of a linear order
      * @return last element in linear order from vector
      */
-    default int theMost(BiPredicate<Double, Double> criteria) {
+    default int theMost(DoubleBiPredicate criteria) {
         int n = size();
         int res = 0;
         for (int i = 0; i < n; i++) {
@@ -182,6 +285,13 @@ public interface Vector extends Iterable<Double> {
         double res = 0;
         int n = size();
         double item;
+        double[] items = array();
+        if (items != null) {
+            for (int i = 0, a = offset(); i < n; i++, a += stride()) {
+                res += items[a] * items[a];
+            }
+            return Math.sqrt(res);
+        }
         for (int i = 0; i < n; i++) {
             item = get(i);
             res += item * item;
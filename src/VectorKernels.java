@@ -0,0 +1,142 @@
+/**
+ * Kernels over contiguous ranges of double arrays (rows of the {@link Matrix} storage): dot product, axpy,
+ * scaling, maximal absolute value and the first minimum.
+ * <p>
+ * When the incubating Vector API is available (the JVM is started with {@code --add-modules jdk.incubator.vector})
+ * the kernels are executed by {@link SimdKernels} with the widest SIMD registers of the processor,
+ * otherwise by the plain loops below. The choice is made once, on the class initialization, and can be disabled
+ * by {@code -Dvector.kernels.simd=false}. Axpy, scaling, maximum and minimum give exactly the same results
+ * in both modes, dot product sums the items in a different order, so it may differ in the last bits
+ */
+public final class VectorKernels {
+    /** whether the SIMD implementation is used */
+    private static final boolean IS_SIMD = isSimdAvailable();
+
+    private VectorKernels() {
+    }
+
+    /**
+     * Whether the kernels are executed by the Vector API
+     *
+     * @return true for SIMD kernels, false for the scalar ones
+     */
+    public static boolean isSimd() {
+        return IS_SIMD;
+    }
+
+    /**
+     * Dot product of two ranges: x_0*y_0 + x_1*y_1 + ... + x_(n-1)*y_(n-1)
+     *
+     * @param x       first array
+     * @param xOffset index of the first item of x
+     * @param y       second array
+     * @param yOffset index of the first item of y
+     * @param length  amount of items
+     * @return dot product
+     */
+    public static double dot(double[] x, int xOffset, double[] y, int yOffset, int length) {
+        if (IS_SIMD) {
+            return SimdKernels.dot(x, xOffset, y, yOffset, length);
+        }
+        double sum = 0;
+        for (int k = 0; k < length; k++) {
+            sum += x[xOffset + k] * y[yOffset + k];
+        }
+        return sum;
+    }
+
+    /**
+     * Add the scaled range: y_k = y_k + factor * x_k.
+     * !! Mutate the entry !!
+     *
+     * @param factor  number on which items of x are multiplied
+     * @param x       operand array
+     * @param xOffset index of the first item of x
+     * @param y       mutated array
+     * @param yOffset index of the first item of y
+     * @param length  amount of items
+     */
+    public static void axpy(double factor, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        if (IS_SIMD) {
+            SimdKernels.axpy(factor, x, xOffset, y, yOffset, length);
+            return;
+        }
+        for (int k = 0; k < length; k++) {
+            y[yOffset + k] += factor * x[xOffset + k];
+        }
+    }
+
+    /**
+     * Scale the range: x_k = x_k * factor.
+     * !! Mutate the entry !!
+     *
+     * @param x      mutated array
+     * @param offset index of the first item
+     * @param length amount of items
+     * @param factor number on which items are multiplied
+     */
+    public static void scale(double[] x, int offset, int length, double factor) {
+        if (IS_SIMD) {
+            SimdKernels.scale(x, offset, length, factor);
+            return;
+        }
+        for (int k = offset; k < offset + length; k++) {
+            x[k] *= factor;
+        }
+    }
+
+    /**
+     * Maximal absolute value of the range
+     *
+     * @param x      array
+     * @param offset index of the first item
+     * @param length amount of items
+     * @return max |x_k|, 0 for the empty range
+     */
+    public static double maxAbs(double[] x, int offset, int length) {
+        if (IS_SIMD) {
+            return SimdKernels.maxAbs(x, offset, length);
+        }
+        double max = 0;
+        for (int k = offset; k < offset + length; k++) {
+            max = Math.max(max, Math.abs(x[k]));
+        }
+        return max;
+    }
+
+    /**
+     * Position of the first minimal item of the range
+     *
+     * @param x      array
+     * @param offset index of the first item
+     * @param length amount of items
+     * @return index of the first minimum relative to the offset, -1 for the empty range
+     */
+    public static int argMin(double[] x, int offset, int length) {
+        if (IS_SIMD) {
+            return SimdKernels.argMin(x, offset, length);
+        }
+        int result = length > 0 ? 0 : -1;
+        for (int k = 1; k < length; k++) {
+            if (x[offset + k] < x[offset + result]) {
+                result = k;
+            }
+        }
+        return result;
+    }
+
+    // SimdKernels refers to the incubator module, so it is loaded only if the module is resolved
+    private static boolean isSimdAvailable() {
+        if (!Boolean.parseBoolean(System.getProperty("vector.kernels.simd", "true"))) {
+            return false;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return SimdKernels.isProfitable();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -1,4 +1,4 @@
-import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
 
 /** Class representing a slice (subsection) of a vector */
 public class VectorSlice implements Vector {
@@ -8,6 +8,11 @@ public class VectorSlice implements Vector {
     int start;
     /** End index of the slice */
     int stop;
+    /** backing array of the origin, null if it is not a dense view */
+    private final double[] items;
+    /** position of the item 0 of the slice in the backing array */
+    private final int offset;
+    private final int stride;
 
     /**
      * Constructor to create a slice from an existing vector. Right border is exclusive
@@ -24,22 +29,29 @@ public class VectorSlice implements Vector {
         vector = origin;
         this.start = start;
         this.stop = stop;
+        items = origin.array();
+        stride = origin.stride();
+        offset = origin.offset() + start * stride;
     }
 
     @Override
     public double get(int index) throws IndexOutOfBoundsException {
-        if (index >= size()) {
+        if (index < 0 || index >= size()) {
             throw new IndexOutOfBoundsException();
         }
-        return vector.get(index + start);
+        return items != null ? items[offset + index * stride] : vector.get(index + start);
     }
 
     @Override
     public void set(int index, double value) throws IndexOutOfBoundsException {
-        if (index >= size()) {
+        if (index < 0 || index >= size()) {
             throw new IndexOutOfBoundsException();
         }
-        vector.set(index + start, value);
+        if (items != null) {
+            items[offset + index * stride] = value;
+        } else {
+            vector.set(index + start, value);
+        }
     }
 
     @Override
@@ -47,6 +59,21 @@ public class VectorSlice implements Vector {
         return stop - start;
     }
 
+    @Override
+    public double[] array() {
+        return items;
+    }
+
+    @Override
+    public int offset() {
+        return offset;
+    }
+
+    @Override
+    public int stride() {
+        return stride;
+    }
+
     @Override
     public Vector multiply(double factor) {
         ColumnVector result = new ColumnVector(size());
@@ -58,7 +85,7 @@ public class VectorSlice implements Vector {
     }
 
     @Override
-    public Vector getMutated(Vector operand, BiFunction<Double, Double, Double> shader) {
+    public Vector getMutated(Vector operand, DoubleBinaryOperator shader) {
         RowVector res = new RowVector(size());
         for (int i = 0; i < size(); i++) {
             res.set(i, get(i));
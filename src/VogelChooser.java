@@ -19,6 +19,9 @@ public class VogelChooser implements Chooser {
 
             double minC1 = Double.MAX_VALUE;
             double minC2 = Double.MAX_VALUE;
+            // lines without accessible cells (distributed or absent ones) must never be chosen
+            boolean isRowActive = false;
+            boolean isColumnActive = false;
 
             for (int j = 0; j < Math.max(object.costs.getRows(), object.costs.getColumns()); j++) {
                 if (i < object.costs.getRows() && j < object.costs.getColumns()) {
@@ -30,6 +33,7 @@ public class VogelChooser implements Chooser {
                         }
                     }
                     if (accessible) {
+                        isRowActive = true;
                         double valueR = object.costs.get(i, j);
                         if (valueR < minR1) {
                             minR2 = minR1;
@@ -48,6 +52,7 @@ public class VogelChooser implements Chooser {
                         }
                     }
                     if (accessible) {
+                        isColumnActive = true;
                         double valueC = object.costs.get(j, i);
                         if (valueC < minC1) {
                             minC2 = minC1;
@@ -58,8 +63,8 @@ public class VogelChooser implements Chooser {
                     }
                 }
             }
-            smallestElementsDifferencesRows.add(Math.abs(minR1-minR2));
-            smallestElementsDifferencesCols.add(Math.abs(minC1-minC2));
+            smallestElementsDifferencesRows.add(isRowActive ? Math.abs(minR1-minR2) : -1);
+            smallestElementsDifferencesCols.add(isColumnActive ? Math.abs(minC1-minC2) : -1);
         }
         double max1 = smallestElementsDifferencesRows.getFirst();
         int indmax1 = 0;